@@ -0,0 +1,88 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Query hot paths of CalendarManager on a synthetic calendar loaded once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarManagerBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int events;
+
+    @Param({"0.1"})
+    public double dailyShare;
+
+    @Param({"0.2"})
+    public double weeklyShare;
+
+    @Param({"20"})
+    public int categories;
+
+    // Middle of the generated two-year range
+    private static final LocalDate DAY = SyntheticCalendar.FIRST_DAY.plusDays(SyntheticCalendar.DAYS / 2);
+    private static final YearMonth MONTH = YearMonth.from(DAY);
+    // Epoch seconds in the manager's default zone, as createEvent passes them
+    private static final long SLOT_START = DAY.atTime(3, 17).atZone(ZoneId.systemDefault()).toEpochSecond();
+    private static final long SLOT_END = DAY.atTime(3, 19).atZone(ZoneId.systemDefault()).toEpochSecond();
+
+    private CalendarApi api;
+    private File dir;
+    private Object manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        api = new CalendarApi();
+        dir = Files.createTempDirectory("calendar-bench").toFile();
+        SyntheticCalendar.generate(dir, events, dailyShare, weeklyShare, categories, 42L);
+        manager = api.newManager(api.newFileHandler(dir));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        api.close(manager);
+        FileHandlerBenchmark.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public List<?> getEventsForDate() throws Throwable {
+        return api.getEventsForDate(manager, DAY);
+    }
+
+    // What refreshCalendar asks for on every month navigation
+    @Benchmark
+    public int[] monthRender() throws Throwable {
+        return api.getEventCountsForMonth(manager, MONTH);
+    }
+
+    @Benchmark
+    public List<?> searchHit() throws Throwable {
+        return api.search(manager, "cat-7");
+    }
+
+    @Benchmark
+    public List<?> searchMiss() throws Throwable {
+        return api.search(manager, "no such event");
+    }
+
+    @Benchmark
+    public boolean hasConflict() throws Throwable {
+        return api.hasConflict(manager, SLOT_START, SLOT_END);
+    }
+
+    @Benchmark
+    public String getStatistics() throws Throwable {
+        return api.getStatistics(manager);
+    }
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// CSV load/save (FileHandler.loadList / saveList through loadEvents / saveEvents).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileHandlerBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int events;
+
+    private CalendarApi api;
+    private File sourceDir;
+    private File targetDir;
+    private Object source;
+    private Object target;
+    private List<?> loaded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        api = new CalendarApi();
+        sourceDir = Files.createTempDirectory("calendar-bench-src").toFile();
+        targetDir = Files.createTempDirectory("calendar-bench-dst").toFile();
+        SyntheticCalendar.generate(sourceDir, events, 0.1, 0.2, 20, 42L);
+        source = api.newFileHandler(sourceDir);
+        target = api.newFileHandler(targetDir);
+        loaded = api.loadEvents(source);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        deleteRecursively(sourceDir);
+        deleteRecursively(targetDir);
+    }
+
+    @Benchmark
+    public List<?> loadList() throws Throwable {
+        return api.loadEvents(source);
+    }
+
+    @Benchmark
+    public void saveList() throws Throwable {
+        api.saveEvents(target, loaded);
+    }
+
+    static void deleteRecursively(File f) {
+        File[] children = f.listFiles();
+        if (children != null) for (File c : children) deleteRecursively(c);
+        f.delete();
+    }
+}
@@ -0,0 +1,121 @@
+package bench;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Closed-loop load test for a running CalendarServer: each worker sends its next request as soon
+// as the last one is answered, for a fixed time. The mix is month range queries, category
+// searches and free-slot lookups over the SyntheticCalendar years, plus an optional share of
+// creates (which mostly end in 409 on a dense calendar, still a full write-path round trip).
+//
+// java -cp benchmarks.jar bench.HttpLoadTest <baseUrl> [workers] [seconds] [writeShare] [categories]
+public final class HttpLoadTest {
+    private static final String[] KINDS = {"range", "search", "free", "create"};
+
+    private HttpLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: HttpLoadTest <baseUrl> [workers] [seconds] [writeShare] [categories]");
+            System.exit(2);
+        }
+        String base = args[0].endsWith("/") ? args[0].substring(0, args[0].length() - 1) : args[0];
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        double writeShare = args.length > 3 ? Double.parseDouble(args[3]) : 0.0;
+        int categories = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long[][][] latencies = new long[workers][KINDS.length][];
+        int[][] counts = new int[workers][KINDS.length];
+        int[] errors = new int[workers];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            for (int k = 0; k < KINDS.length; k++) latencies[w][k] = new long[1024];
+            Thread t = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int kind = rnd.nextDouble() < writeShare ? 3 : rnd.nextInt(3);
+                    HttpRequest request = request(base, kind, categories, rnd);
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        int status = response.statusCode();
+                        if (status >= 500 || (status >= 400 && status != 409)) errors[worker]++;
+                    } catch (Exception e) {
+                        errors[worker]++;
+                        continue;
+                    }
+                    long[] l = latencies[worker][kind];
+                    int n = counts[worker][kind]++;
+                    if (n == l.length) latencies[worker][kind] = l = Arrays.copyOf(l, n * 2);
+                    l[n] = System.nanoTime() - t0;
+                }
+            }, "load-" + w);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+
+        long total = 0;
+        int errorCount = 0;
+        for (int w = 0; w < workers; w++) errorCount += errors[w];
+        System.out.printf("%-8s %9s %10s %10s %10s %10s%n", "request", "count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (int k = 0; k < KINDS.length; k++) {
+            int n = 0;
+            for (int w = 0; w < workers; w++) n += counts[w][k];
+            if (n == 0) continue;
+            long[] all = new long[n];
+            int pos = 0;
+            for (int w = 0; w < workers; w++) {
+                System.arraycopy(latencies[w][k], 0, all, pos, counts[w][k]);
+                pos += counts[w][k];
+            }
+            Arrays.sort(all);
+            total += n;
+            System.out.printf("%-8s %9d %10.2f %10.2f %10.2f %10.2f%n", KINDS[k], n,
+                    ms(all, 0.50), ms(all, 0.90), ms(all, 0.99), all[n - 1] / 1e6);
+        }
+        System.out.printf("%d requests in %d s with %d workers: %.0f req/s, %d errors%n",
+                total, seconds, workers, total / (double) seconds, errorCount);
+    }
+
+    private static HttpRequest request(String base, int kind, int categories, Random rnd) {
+        LocalDate day = SyntheticCalendar.FIRST_DAY.plusDays(rnd.nextInt(SyntheticCalendar.DAYS));
+        switch (kind) {
+            case 0:
+                LocalDate first = day.withDayOfMonth(1);
+                return get(base + "/events?from=" + first + "&to=" + first.plusMonths(1).minusDays(1));
+            case 1:
+                return get(base + "/search?q=cat-" + rnd.nextInt(categories));
+            case 2:
+                return get(base + "/free?from=" + day.atTime(9, 0) + "&to=" + day.plusDays(7).atTime(17, 0)
+                        + "&minutes=30&workStart=09:00&workEnd=17:00&limit=3");
+            default:
+                String form = "title=Load+test&start=" + day.atTime(12, 0) + "&end=" + day.atTime(12, 15)
+                        + "&category=" + URLEncoder.encode("load test", StandardCharsets.UTF_8);
+                return HttpRequest.newBuilder(URI.create(base + "/events"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form)).build();
+        }
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static double ms(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+}
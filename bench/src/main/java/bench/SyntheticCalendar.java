@@ -0,0 +1,71 @@
+package bench;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+// Writes a calendar shard (event.csv, recurrent.csv, additional.csv) in the app's CSV format.
+// Events start at random minutes over two years from 2025-01-01; a share of them repeat Daily
+// or Weekly, half bounded by a repeat count and half by an end date.
+//
+// Standalone: java -cp benchmarks.jar bench.SyntheticCalendar <dir> <events> [dailyShare] [weeklyShare] [categories]
+public final class SyntheticCalendar {
+    public static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    public static final int DAYS = 730;
+
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private SyntheticCalendar() {}
+
+    public static void generate(File dir, int events, double dailyShare, double weeklyShare,
+                                int categories, long seed) throws IOException {
+        dir.mkdirs();
+        Random rnd = new Random(seed);
+
+        try (PrintWriter ev = open(dir, "event.csv", "eventId, title, description, startDateTime, endDateTime");
+             PrintWriter rec = open(dir, "recurrent.csv", "eventId, recurrentInterval, recurrentTimes, recurrentEndDate");
+             PrintWriter add = open(dir, "additional.csv", "eventId, location, category")) {
+
+            for (int id = 1; id <= events; id++) {
+                LocalDateTime start = FIRST_DAY.atStartOfDay()
+                        .plusDays(rnd.nextInt(DAYS))
+                        .plusMinutes(rnd.nextInt(24 * 60));
+                LocalDateTime end = start.plusMinutes(30 + rnd.nextInt(91));
+                ev.println(id + ",Event " + id + ",Synthetic event," + start.format(FMT) + "," + end.format(FMT));
+
+                double kind = rnd.nextDouble();
+                String interval = kind < dailyShare ? "Daily" : kind < dailyShare + weeklyShare ? "Weekly" : null;
+                if (interval != null) {
+                    if (rnd.nextBoolean()) {
+                        rec.println(id + "," + interval + "," + (1 + rnd.nextInt(20)) + ",0");
+                    } else {
+                        rec.println(id + "," + interval + ",0," + start.toLocalDate().plusDays(7 + rnd.nextInt(180)));
+                    }
+                }
+
+                int cat = rnd.nextInt(categories);
+                add.println(id + ",room-" + rnd.nextInt(50) + ",cat-" + cat);
+            }
+        }
+    }
+
+    private static PrintWriter open(File dir, String name, String header) throws IOException {
+        PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(new File(dir, name))));
+        pw.println(header);
+        return pw;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: SyntheticCalendar <dir> <events> [dailyShare] [weeklyShare] [categories]");
+            return;
+        }
+        generate(new File(args[0]), Integer.parseInt(args[1]),
+                args.length > 2 ? Double.parseDouble(args[2]) : 0.1,
+                args.length > 3 ? Double.parseDouble(args[3]) : 0.2,
+                args.length > 4 ? Integer.parseInt(args[4]) : 20,
+                42L);
+    }
+}
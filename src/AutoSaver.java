@@ -0,0 +1,93 @@
+import java.util.concurrent.*;
+
+// Write-behind saver. The first change after a flush opens a window of 'delayMs'; every change
+// made inside that window is written by a single flush on a background thread.
+// A delay of 0 (or less) flushes synchronously on the caller's thread, like the old saveAll().
+public class AutoSaver {
+    public static final long DEFAULT_DELAY_MS = Long.getLong("calendar.autosave.ms", 500);
+
+    private final Runnable flushTask;
+    private final long delayMs;
+    private final ScheduledExecutorService executor;
+    private final Thread shutdownHook;
+    private ScheduledFuture<?> pending;
+    private volatile boolean closed;
+
+    public AutoSaver(Runnable flushTask, long delayMs) {
+        this.flushTask = flushTask;
+        this.delayMs = delayMs;
+        if (delayMs <= 0) {
+            this.executor = null;
+            this.shutdownHook = null;
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "calendar-autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        // Whatever is still dirty when the JVM exits gets written
+        this.shutdownHook = new Thread(this::close, "calendar-autosave-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Called after every mutation; cheap when a flush is already scheduled
+    public synchronized void requestSave() {
+        if (executor == null || closed) {
+            flushTask.run();
+            return;
+        }
+        if (pending == null) {
+            pending = executor.schedule(this::runScheduled, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runScheduled() {
+        synchronized (this) { pending = null; }
+        flushTask.run();
+    }
+
+    // Writes everything now and waits for it, e.g. before a restore or when the window closes
+    public void flushNow() {
+        if (executor == null || closed) {
+            flushTask.run();
+            return;
+        }
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
+        }
+        try {
+            executor.submit(flushTask).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        } catch (RejectedExecutionException e) {
+            // Executor is gone (shutdown in progress): write on this thread instead
+            flushTask.run();
+        }
+    }
+
+    // Final flush; later requests are written synchronously
+    public void close() {
+        if (executor == null || closed) return;
+        synchronized (this) {
+            closed = true;
+            if (pending != null) pending.cancel(false);
+            pending = null;
+        }
+        executor.shutdown();
+        try {
+            if (Thread.currentThread() != shutdownHook) Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) { /* JVM is already shutting down */ }
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushTask.run();
+    }
+}
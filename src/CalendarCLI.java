@@ -0,0 +1,300 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+// Headless entry point for scripts and cron jobs: drives a CalendarManager without Swing/AWT.
+// Output is streamed as CSV (header + one row per record) or JSON lines (one object per line).
+//
+//   java -cp fop-calendar.jar CalendarCLI [options] <command> [args]
+public class CalendarCLI {
+    private static final String USAGE = String.join("\n",
+            "Usage: CalendarCLI [--dir DIR] [--calendar NAME] [--format csv|json] [--zone ZONE] <command> [args]",
+            "Commands:",
+            "  range FROM TO     occurrences starting between two dates (YYYY-MM-DD, inclusive)",
+            "  search QUERY      events whose title, category or location contains QUERY",
+            "  stats             event counts and busiest day",
+            "  export [FILE]     every event with its recurrence and details (importable CSV)",
+            "  import FILE       add the events of an exported CSV under new ids",
+            "  backup PATH       write a backup file",
+            "  restore PATH      replace the calendar with a backup file",
+            "  compact           drop orphaned/duplicate rows and rewrite the data files",
+            "  migrate           copy the CSV files into the -Dcalendar.store database if it has no events",
+            "Options:",
+            "  --dir DIR         base directory holding the calendars (default: current directory)",
+            "  --calendar NAME   calendar to use (default: " + CalendarRegistry.DEFAULT_CALENDAR + ")",
+            "  --format FORMAT   csv (default) or json",
+            "  --zone ZONE       zone for dates and times (default: system zone)");
+
+    // range/search rows: times in the --zone zone
+    private static final String[] EVENT_COLUMNS = {"id", "title", "description", "start", "end", "location", "category"};
+    // export/import rows: times are wall-clock in the row's own zone, so a round trip is exact
+    private static final String[] EXPORT_COLUMNS = {"id", "title", "description", "start", "end", "zone",
+            "recurrence", "times", "recurEnd", "skipDates", "location", "category"};
+
+    private final PrintWriter out;
+    private final boolean json;
+    private boolean headerWritten;
+
+    private CalendarCLI(PrintWriter out, boolean json) {
+        this.out = out;
+        this.json = json;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        // Cron runs are short: no JMX server or file watching unless asked for
+        if (System.getProperty("calendar.metrics.jmx") == null) System.setProperty("calendar.metrics.jmx", "false");
+        if (System.getProperty("calendar.watch") == null) System.setProperty("calendar.watch", "false");
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        String dir = ".";
+        String calendar = CalendarRegistry.DEFAULT_CALENDAR;
+        String format = "csv";
+        ZoneId zone = ZoneId.systemDefault();
+
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("--"); i += 2) {
+                if (i + 1 >= args.length) return usage("Missing value for " + args[i]);
+                switch (args[i]) {
+                    case "--dir": dir = args[i + 1]; break;
+                    case "--calendar": calendar = args[i + 1]; break;
+                    case "--format": format = args[i + 1].toLowerCase(); break;
+                    case "--zone": zone = ZoneId.of(args[i + 1]); break;
+                    default: return usage("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            return usage(e.getMessage());
+        }
+        if (i >= args.length) return usage(null);
+        if (!format.equals("csv") && !format.equals("json")) return usage("Unknown format " + format);
+
+        String command = args[i];
+        String[] rest = Arrays.copyOfRange(args, i + 1, args.length);
+
+        CalendarRegistry registry = new CalendarRegistry(new File(dir));
+        CalendarManager manager = registry.getManager(calendar);
+        if (manager == null) {
+            System.err.println("CLI Error: No calendar named " + calendar);
+            return 1;
+        }
+        registry.setZone(zone);
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        try {
+            if (command.equals("migrate")) return new CalendarCLI(out, format.equals("json")).migrate(registry, calendar, rest);
+            return new CalendarCLI(out, format.equals("json")).execute(manager, command, rest);
+        } catch (Exception e) {
+            System.err.println("CLI Error: " + e.getMessage());
+            return 1;
+        } finally {
+            out.flush();
+            registry.closeAll();
+        }
+    }
+
+    private int execute(CalendarManager manager, String command, String[] args) throws IOException {
+        switch (command) {
+            case "range":
+                if (args.length != 2) return usage("range needs FROM and TO");
+                for (Event e : manager.getOccurrences(LocalDate.parse(args[0]), LocalDate.parse(args[1]))) {
+                    writeEvent(manager, e);
+                }
+                return 0;
+
+            case "search":
+                if (args.length != 1) return usage("search needs QUERY");
+                for (Event e : manager.search(args[0])) writeEvent(manager, e);
+                return 0;
+
+            case "stats":
+                writeStats(manager);
+                return 0;
+
+            case "export":
+                if (args.length > 1) return usage("export takes at most one FILE");
+                if (args.length == 1) {
+                    // Export files are always CSV so they can be imported again
+                    try (PrintWriter file = new PrintWriter(new BufferedWriter(
+                            new OutputStreamWriter(new FileOutputStream(args[0]), StandardCharsets.UTF_8)))) {
+                        new CalendarCLI(file, false).writeExport(manager);
+                    }
+                } else {
+                    writeExport(manager);
+                }
+                return 0;
+
+            case "import":
+                if (args.length != 1) return usage("import needs FILE");
+                int added = importFile(manager, new File(args[0]));
+                write(new String[]{"imported"}, new Object[]{added});
+                return 0;
+
+            case "backup":
+                if (args.length != 1) return usage("backup needs PATH");
+                manager.backup(args[0]);
+                return 0;
+
+            case "restore":
+                if (args.length != 1) return usage("restore needs PATH");
+                if (!new File(args[0]).isFile()) {
+                    System.err.println("CLI Error: No backup file " + args[0]);
+                    return 1;
+                }
+                manager.restore(args[0]);
+                return 0;
+
+            case "compact":
+                write(new String[]{"removedRows"}, new Object[]{manager.compact()});
+                return 0;
+
+            default:
+                return usage("Unknown command " + command);
+        }
+    }
+
+    private int migrate(CalendarRegistry registry, String calendar, String[] args) {
+        if (args.length != 0) return usage("migrate takes no arguments");
+        int copied = registry.migrateCsv(calendar);
+        if (copied < 0) {
+            System.err.println("CLI Error: " + calendar + " has no empty database to copy into (see -Dcalendar.store)");
+            return 1;
+        }
+        write(new String[]{"migratedEvents"}, new Object[]{copied});
+        return 0;
+    }
+
+    private void writeEvent(CalendarManager manager, Event e) {
+        ZoneId zone = manager.getZone();
+        AdditionalInfo info = manager.getAdditionalInfo(e.getId());
+        write(EVENT_COLUMNS, new Object[]{
+                e.getId(), e.getTitle(), e.getDescription(),
+                e.getStartDateTime(zone), e.getEndDateTime(zone),
+                info != null ? info.getLocation() : "",
+                info != null ? info.getCategory() : ""});
+    }
+
+    private void writeExport(CalendarManager manager) {
+        for (Event e : manager.getAllEvents()) {
+            Recurrence r = manager.getRecurrence(e.getId());
+            AdditionalInfo info = manager.getAdditionalInfo(e.getId());
+            write(EXPORT_COLUMNS, new Object[]{
+                    e.getId(), e.getTitle(), e.getDescription(),
+                    e.getStartDateTime(), e.getEndDateTime(), e.getZone().getId(),
+                    r != null ? r.getInterval() : "none",
+                    r != null ? r.getTimes() : 0,
+                    r != null && r.getEndDate() != null ? r.getEndDate().toString() : "",
+                    r != null ? Recurrence.joinDates(r.getExcludedDates()) : "",
+                    info != null ? info.getLocation() : "",
+                    info != null ? info.getCategory() : ""});
+        }
+    }
+
+    private void writeStats(CalendarManager manager) {
+        List<Event> all = manager.getAllEvents();
+        int series = 0;
+        Set<String> categories = new TreeSet<>();
+        for (Event e : all) {
+            if (manager.getRecurrence(e.getId()) != null) series++;
+            AdditionalInfo info = manager.getAdditionalInfo(e.getId());
+            if (info != null && !info.getCategory().isEmpty()) categories.add(info.getCategory());
+        }
+        String[] columns = {"metric", "value"};
+        write(columns, new Object[]{"events", all.size()});
+        write(columns, new Object[]{"recurring", series});
+        write(columns, new Object[]{"categories", categories.size()});
+        write(columns, new Object[]{"summary", manager.getStatistics()});
+    }
+
+    // Reads rows in the export format; the header line and blank lines are skipped
+    private static int importFile(CalendarManager manager, File file) throws IOException {
+        List<Event> events = new ArrayList<>();
+        List<Recurrence> recurrences = new ArrayList<>();
+        List<AdditionalInfo> infos = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = br.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank() || line.startsWith("id,")) continue;
+                List<String> f = splitCsv(line);
+                if (f.size() < EXPORT_COLUMNS.length) throw new IOException("Line " + lineNo + ": expected " + EXPORT_COLUMNS.length + " fields");
+
+                int id = Integer.parseInt(f.get(0));
+                // The data files are comma-separated without quoting, like AdditionalInfo.toCSV
+                events.add(new Event(id, f.get(1).replace(",", " "), f.get(2).replace(",", " "),
+                        LocalDateTime.parse(f.get(3)), LocalDateTime.parse(f.get(4)), ZoneId.of(f.get(5))));
+                if (!f.get(6).equals("none") && !f.get(6).isEmpty()) {
+                    if (RecurrenceRule.parse(f.get(6)) == null) throw new IOException("Line " + lineNo + ": unknown recurrence rule " + f.get(6));
+                    recurrences.add(new Recurrence(id, f.get(6), Integer.parseInt(f.get(7)),
+                            f.get(8).isEmpty() ? null : LocalDate.parse(f.get(8)), Recurrence.parseDates(f.get(9))));
+                }
+                if (!f.get(10).isEmpty() || !f.get(11).isEmpty()) infos.add(new AdditionalInfo(id, f.get(10), f.get(11)));
+            }
+        }
+        return manager.importEvents(events, recurrences, infos);
+    }
+
+    // --- Output ---
+    private void write(String[] columns, Object[] values) {
+        if (json) {
+            Object[] pairs = new Object[columns.length * 2];
+            for (int i = 0; i < columns.length; i++) {
+                pairs[2 * i] = columns[i];
+                pairs[2 * i + 1] = values[i];
+            }
+            out.println(Json.object(pairs));
+            return;
+        }
+        if (!headerWritten) {
+            out.println(String.join(",", columns));
+            headerWritten = true;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(csvField(values[i] == null ? "" : values[i].toString()));
+        }
+        out.println(sb);
+    }
+
+    private static String csvField(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') { sb.append('"'); i++; }
+                else if (c == '"') quoted = false;
+                else sb.append(c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        fields.add(sb.toString());
+        return fields;
+    }
+
+    private static int usage(String problem) {
+        if (problem != null) System.err.println("CLI Error: " + problem);
+        System.err.println(USAGE);
+        return 2;
+    }
+}
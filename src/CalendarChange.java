@@ -0,0 +1,43 @@
+// One change to a calendar, as published to CalendarListeners.
+// CREATED has only the new rows, DELETED only the old ones, UPDATED both, so a view can take
+// the old time span's occurrences out and put the new ones in. RELOADED (restore, import,
+// compact, outside edits) carries no rows: anything derived from the calendar must be rebuilt.
+public class CalendarChange {
+    public enum Type { CREATED, UPDATED, DELETED, RELOADED }
+
+    private final CalendarManager source;
+    private final Type type;
+    private final long version;
+    private final int eventId;
+    private final Event oldEvent;
+    private final Recurrence oldRecurrence;
+    private final Event newEvent;
+    private final Recurrence newRecurrence;
+
+    public CalendarChange(CalendarManager source, Type type, long version, int eventId,
+                          Event oldEvent, Recurrence oldRecurrence, Event newEvent, Recurrence newRecurrence) {
+        this.source = source;
+        this.type = type;
+        this.version = version;
+        this.eventId = eventId;
+        this.oldEvent = oldEvent;
+        this.oldRecurrence = oldRecurrence;
+        this.newEvent = newEvent;
+        this.newRecurrence = newRecurrence;
+    }
+
+    public CalendarManager getSource() { return source; }
+    public Type getType() { return type; }
+    // Same numbering as CalendarManager.getVersion(): the calendar is at this version once the change is in
+    public long getVersion() { return version; }
+    public int getEventId() { return eventId; }
+    public Event getOldEvent() { return oldEvent; }
+    public Recurrence getOldRecurrence() { return oldRecurrence; }
+    public Event getNewEvent() { return newEvent; }
+    public Recurrence getNewRecurrence() { return newRecurrence; }
+
+    @Override
+    public String toString() {
+        return type + " " + eventId + " (version " + version + ")";
+    }
+}
@@ -6,29 +6,59 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CalendarGUI extends JFrame {
 
-    private CalendarManager manager;
+    // Recurrence presets; the combo is editable for custom rules (see RecurrenceRule)
+    private static final String[] RECURRENCE_CHOICES = {"none", "Daily", "Weekly", "Monthly", "Yearly",
+            "FREQ=WEEKLY;BYDAY=MO/WE/FR", "FREQ=MONTHLY;BYDAY=-1FR"};
+
+    // "Next Free Slot" only offers times inside working hours
+    private static final LocalTime WORK_START = LocalTime.of(9, 0);
+    private static final LocalTime WORK_END = LocalTime.of(17, 0);
+    private static final int FREE_SLOT_SEARCH_DAYS = 90;
+
+    // Search result columns
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private CalendarRegistry registry;
+    private CalendarManager manager; // Active calendar: new events, stats, backup and restore
+    private JComboBox<String> calendarBox;
+    private ZoneId displayZone = ZoneId.systemDefault(); // Events are shown in this zone
     private YearMonth currentYearMonth;
-    private JPanel calendarPanel;
+    private MonthGridPanel monthGrid;
     private JLabel monthLabel;
+    // Version of each visible calendar the grid counts are at; later changes are applied on top
+    private final Map<CalendarManager, Long> gridVersions = new HashMap<>();
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> new CalendarGUI().setVisible(true));
     }
 
     public CalendarGUI() {
-        manager = new CalendarManager();
+        registry = new CalendarRegistry();
+        manager = registry.getManager(CalendarRegistry.DEFAULT_CALENDAR);
         currentYearMonth = YearMonth.now();
 
         setTitle("Calendar App");
         setSize(1000, 750);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            public void windowClosing(java.awt.event.WindowEvent evt) {
+                // Pending autosaves are written before the JVM exits
+                registry.closeAll();
+            }
+        });
         setLocationRelativeTo(null);
 
         initUI();
+        // Edits from anywhere (this window, the HTTP service, ...) reach the views as changes
+        registry.addListener(change -> SwingUtilities.invokeLater(() -> onCalendarChanged(change)));
         refreshCalendar();
 
         // Feature: Reminder Notification on Launch
@@ -55,6 +85,9 @@ public class CalendarGUI extends JFrame {
 
         // Actions
         JPanel actionPanel = new JPanel();
+        calendarBox = new JComboBox<>(registry.getCalendarNames().toArray(new String[0]));
+        JComboBox<String> zoneBox = createZoneBox(displayZone);
+        JButton calendarsBtn = new JButton("Calendars");
         JButton addBtn = new JButton("Add Event");
         JButton searchBtn = new JButton("Search");
         JButton statsBtn = new JButton("Statistics"); // Feature: Stats
@@ -66,84 +99,83 @@ public class CalendarGUI extends JFrame {
         statsBtn.addActionListener(e -> JOptionPane.showMessageDialog(this, manager.getStatistics()));
         backupBtn.addActionListener(e -> performBackup());
         restoreBtn.addActionListener(e -> performRestore());
+        calendarBox.addActionListener(e -> switchActiveCalendar((String) calendarBox.getSelectedItem()));
+        calendarsBtn.addActionListener(e -> showCalendarsDialog());
+        zoneBox.addActionListener(e -> {
+            try {
+                displayZone = ZoneId.of((String) zoneBox.getSelectedItem());
+            } catch (DateTimeException ex) {
+                JOptionPane.showMessageDialog(this, "Unknown time zone: " + zoneBox.getSelectedItem());
+                zoneBox.setSelectedItem(displayZone.getId());
+                return;
+            }
+            registry.setZone(displayZone);
+            refreshCalendar();
+        });
 
+        actionPanel.add(new JLabel("Calendar:")); actionPanel.add(calendarBox); actionPanel.add(calendarsBtn);
         actionPanel.add(addBtn); actionPanel.add(searchBtn); actionPanel.add(statsBtn);
         actionPanel.add(backupBtn); actionPanel.add(restoreBtn);
+        actionPanel.add(new JLabel("Zone:")); actionPanel.add(zoneBox);
 
         topPanel.add(navPanel, BorderLayout.CENTER);
         topPanel.add(actionPanel, BorderLayout.SOUTH);
         add(topPanel, BorderLayout.NORTH);
 
         // Calendar Grid
-        calendarPanel = new JPanel(new GridLayout(0, 7));
-        add(calendarPanel, BorderLayout.CENTER);
+        monthGrid = new MonthGridPanel(this::showDayDetails);
+        add(monthGrid, BorderLayout.CENTER);
     }
 
     private void refreshCalendar() {
-        calendarPanel.removeAll();
         monthLabel.setText(currentYearMonth.getMonth() + " " + currentYearMonth.getYear());
+        // One read: each calendar reports the version its counts are exact for, and later
+        // changes are applied on top by onCalendarChanged
+        Map<CalendarManager, Long> versions = new ConcurrentHashMap<>();
+        int[] counts = registry.getEventCountsForMonth(currentYearMonth, versions);
+        gridVersions.clear();
+        gridVersions.putAll(versions);
+        monthGrid.setMonth(currentYearMonth, counts);
+    }
 
-        String[] days = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
-        for (String d : days) {
-            JLabel header = new JLabel(d, SwingConstants.CENTER);
-            header.setBorder(BorderFactory.createEtchedBorder());
-            calendarPanel.add(header);
-        }
-
-        LocalDate firstOfMonth = currentYearMonth.atDay(1);
-        int emptySlots = firstOfMonth.getDayOfWeek().getValue() % 7;
-
-        for (int i = 0; i < emptySlots; i++) calendarPanel.add(new JLabel(""));
-
-        for (int day = 1; day <= currentYearMonth.lengthOfMonth(); day++) {
-            LocalDate date = currentYearMonth.atDay(day);
-            List<Event> events = manager.getEventsForDate(date);
-
-            JPanel dayPanel = new JPanel(new BorderLayout());
-            dayPanel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-            dayPanel.setBackground(Color.WHITE);
-
-            dayPanel.add(new JLabel(" " + day), BorderLayout.NORTH);
-
-            if (!events.isEmpty()) {
-                dayPanel.setBackground(new Color(220, 240, 255));
-                JLabel marker = new JLabel(" " + events.size() + " Events");
-                marker.setForeground(Color.BLUE);
-                dayPanel.add(marker, BorderLayout.CENTER);
-            }
-
-            dayPanel.addMouseListener(new java.awt.event.MouseAdapter() {
-                public void mouseClicked(java.awt.event.MouseEvent evt) {
-                    showDayDetails(date, events);
-                }
-            });
-            calendarPanel.add(dayPanel);
+    // Runs on the EDT, in change order: only the day cells the change touches are recounted
+    private void onCalendarChanged(CalendarChange change) {
+        Long seen = gridVersions.get(change.getSource());
+        if (seen == null || change.getVersion() <= seen) return; // Not shown, or already counted
+        if (change.getType() == CalendarChange.Type.RELOADED) {
+            refreshCalendar();
+            return;
         }
-
-        int totalSlots = emptySlots + currentYearMonth.lengthOfMonth();
-        int remaining = 7 - (totalSlots % 7);
-        if (remaining < 7) for (int i=0; i<remaining; i++) calendarPanel.add(new JLabel(""));
-
-        calendarPanel.revalidate(); calendarPanel.repaint();
+        int[] counts = monthGrid.getCounts();
+        change.getSource().applyChange(change, monthGrid.getYearMonth(), counts);
+        monthGrid.updateCounts(counts);
+        gridVersions.put(change.getSource(), change.getVersion());
     }
 
-    private void showDayDetails(LocalDate date, List<Event> events) {
+    private void showDayDetails(LocalDate date) {
+        // Resolve the events when the day is opened, not when the grid was painted
+        Map<String, List<Event>> eventsByCalendar = registry.getEventsForDate(date);
+
         JDialog d = new JDialog(this, "Events: " + date, true);
-        d.setSize(500, 300);
+        d.setSize(600, 300);
         d.setLocationRelativeTo(this);
 
-        String[] columns = {"ID", "Time", "Title", "Category", "Location"};
+        String[] columns = {"ID", "Time", "Title", "Category", "Location", "Calendar"};
         DefaultTableModel model = new DefaultTableModel(columns, 0);
 
-        for (Event e : events) {
-            AdditionalInfo info = manager.getAdditionalInfo(e.getId());
-            model.addRow(new Object[]{
-                    e.getId(),
-                    e.getStartDateTime().toLocalTime(),
-                    e.getTitle(),
-                    (info != null ? info.getCategory() : "-"),
-                    (info != null ? info.getLocation() : "-")
-            });
+        for (Map.Entry<String, List<Event>> entry : eventsByCalendar.entrySet()) {
+            CalendarManager owner = registry.getManager(entry.getKey());
+            for (Event e : entry.getValue()) {
+                AdditionalInfo info = owner.getAdditionalInfo(e.getId());
+                model.addRow(new Object[]{
+                        e.getId(),
+                        owner.getOccurrenceStart(e, date).toLocalTime(), // This day's repeat, in the display zone
+                        e.getTitle(),
+                        (info != null ? info.getCategory() : "-"),
+                        (info != null ? info.getLocation() : "-"),
+                        entry.getKey()
+                });
+            }
         }
 
         JTable table = new JTable(model);
@@ -155,9 +187,9 @@ public class CalendarGUI extends JFrame {
             int row = table.getSelectedRow();
             if (row != -1) {
                 int id = (int) model.getValueAt(row, 0);
-                manager.deleteEvent(id);
+                String cal = (String) model.getValueAt(row, 5);
+                registry.getManager(cal).deleteEvent(id);
                 d.dispose();
-                refreshCalendar();
             }
         });
         d.add(delBtn, BorderLayout.SOUTH);
@@ -166,8 +198,9 @@ public class CalendarGUI extends JFrame {
             int row = table.getSelectedRow();
             if (row != -1) {
                 int id = (int) model.getValueAt(row, 0); // Get ID from hidden column
+                String cal = (String) model.getValueAt(row, 5);
                 d.dispose(); // Close details window
-                showEditEventDialog(id); // Open Edit Window
+                showEditEventDialog(registry.getManager(cal), id); // Open Edit Window
             }
         });
 
@@ -181,7 +214,7 @@ public class CalendarGUI extends JFrame {
 
     private void showAddEventDialog() {
         JDialog d = new JDialog(this, "Add New Event", true);
-        d.setSize(500, 550);
+        d.setSize(520, 600);
         d.setLayout(new GridBagLayout());
         d.setLocationRelativeTo(this);
         GridBagConstraints gbc = new GridBagConstraints();
@@ -206,9 +239,13 @@ public class CalendarGUI extends JFrame {
         endTimeSpinner.setValue(cal.getTime());
 
         // Recurrence & Extra Fields
-        JComboBox<String> recurBox = new JComboBox<>(new String[]{"none", "Daily", "Weekly"});
+        // Editable, so custom rules like "FREQ=MONTHLY;BYDAY=2TU" can be typed in
+        JComboBox<String> recurBox = new JComboBox<>(RECURRENCE_CHOICES);
+        recurBox.setEditable(true);
         JTextField recTimesF = new JTextField("0");
         JTextField recEndF = new JTextField("YYYY-MM-DD");
+        JTextField skipF = new JTextField();
+        JComboBox<String> zoneF = createZoneBox(displayZone);
         JTextField locF = new JTextField();
         JTextField catF = new JTextField();
 
@@ -246,17 +283,54 @@ public class CalendarGUI extends JFrame {
         gbc.gridx = 0; gbc.gridy = 6; d.add(new JLabel("Stop Repeating Date:"), gbc);
         gbc.gridx = 1; d.add(recEndF, gbc);
 
-        gbc.gridx = 0; gbc.gridy = 7; d.add(new JLabel("Location:"), gbc);
+        gbc.gridx = 0; gbc.gridy = 7; d.add(new JLabel("Skip Dates (YYYY-MM-DD;...):"), gbc);
+        gbc.gridx = 1; d.add(skipF, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 8; d.add(new JLabel("Location:"), gbc);
         gbc.gridx = 1; d.add(locF, gbc);
 
-        gbc.gridx = 0; gbc.gridy = 8; d.add(new JLabel("Category:"), gbc);
+        gbc.gridx = 0; gbc.gridy = 9; d.add(new JLabel("Category:"), gbc);
         gbc.gridx = 1; d.add(catF, gbc);
 
+        gbc.gridx = 0; gbc.gridy = 10; d.add(new JLabel("Time Zone:"), gbc);
+        gbc.gridx = 1; d.add(zoneF, gbc);
+
+        JButton freeBtn = new JButton("Next Free Slot");
         JButton saveBtn = new JButton("Save Event");
         saveBtn.setBackground(new Color(100, 200, 100));
-        gbc.gridx = 0; gbc.gridy = 9; gbc.gridwidth = 2;
+        JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        actionPanel.add(freeBtn);
+        actionPanel.add(saveBtn);
+        gbc.gridx = 0; gbc.gridy = 11; gbc.gridwidth = 2;
         gbc.fill = GridBagConstraints.NONE; gbc.anchor = GridBagConstraints.CENTER;
-        d.add(saveBtn, gbc);
+        d.add(actionPanel, gbc);
+
+        // --- Free Slot Action: keep the chosen length, move to the first gap from the chosen start ---
+        freeBtn.addActionListener(e -> {
+            // Spinners are in the event's zone, working hours and the search in the display zone
+            ZoneId eventZone;
+            try {
+                eventZone = ZoneId.of((String) zoneF.getSelectedItem());
+            } catch (DateTimeException ex) {
+                JOptionPane.showMessageDialog(d, "Error: " + ex.getMessage());
+                return;
+            }
+            ZonedDateTime start = getLocalDateTime(startDateSpinner, startTimeSpinner).atZone(eventZone);
+            ZonedDateTime end = getLocalDateTime(endDateSpinner, endTimeSpinner).atZone(eventZone);
+            Duration length = end.isAfter(start) ? Duration.between(start, end) : Duration.ofHours(1);
+            LocalDateTime from = start.withZoneSameInstant(displayZone).toLocalDateTime();
+            LocalDateTime now = LocalDateTime.now(displayZone).truncatedTo(ChronoUnit.MINUTES);
+            if (from.isBefore(now)) from = now;
+
+            TimeSlot slot = manager.findFirstFreeSlot(from, length, WORK_START, WORK_END, FREE_SLOT_SEARCH_DAYS);
+            if (slot == null) {
+                JOptionPane.showMessageDialog(d, "No free slot within working hours in the next " + FREE_SLOT_SEARCH_DAYS + " days.");
+                return;
+            }
+            ZonedDateTime slotStart = slot.getStart().atZone(displayZone).withZoneSameInstant(eventZone);
+            setDateTime(startDateSpinner, startTimeSpinner, slotStart.toLocalDateTime());
+            setDateTime(endDateSpinner, endTimeSpinner, slotStart.plus(length).toLocalDateTime());
+        });
 
         // --- Save Action ---
         saveBtn.addActionListener(e -> {
@@ -272,14 +346,15 @@ public class CalendarGUI extends JFrame {
 
                 String res = manager.createEvent(
                         titleF.getText(), descF.getText(), start, end,
+                        ZoneId.of((String) zoneF.getSelectedItem()),
                         (String)recurBox.getSelectedItem(),
                         Integer.parseInt(recTimesF.getText()), rEnd,
+                        Recurrence.parseDates(skipF.getText()),
                         locF.getText(), catF.getText()
                 );
 
                 if (res.equals("SUCCESS")) {
                     d.dispose();
-                    refreshCalendar();
                     JOptionPane.showMessageDialog(this, "Event Created!");
                 } else {
                     JOptionPane.showMessageDialog(d, res, "Conflict", JOptionPane.WARNING_MESSAGE);
@@ -295,15 +370,15 @@ public class CalendarGUI extends JFrame {
     private void showSearchDialog() {
         String q = JOptionPane.showInputDialog(this, "Search Title, Category, or Location:");
         if (q != null && !q.trim().isEmpty()) {
-            // Call the new Manager method returning Objects
-            List<Event> results = manager.search(q);
+            // Fan out over every visible calendar
+            Map<String, List<Event>> results = registry.search(q);
 
             // Call the new GUI method to show the table
-            showSearchResultsDialog(results);
+            showSearchResultsDialog(q, results);
         }
     }
 
-    private void showSearchResultsDialog(List<Event> results) {
+    private void showSearchResultsDialog(String query, Map<String, List<Event>> results) {
         if (results.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No events found matching your search.");
             return;
@@ -314,7 +389,7 @@ public class CalendarGUI extends JFrame {
         d.setLocationRelativeTo(this);
 
         // 1. Define Table Columns
-        String[] columns = {"ID", "Date", "Time", "Title", "Category", "Location"};
+        String[] columns = {"ID", "Date", "Time", "Title", "Category", "Location", "Calendar"};
 
         DefaultTableModel model = new DefaultTableModel(columns, 0) {
             // Prevent user from editing cells directly
@@ -324,23 +399,18 @@ public class CalendarGUI extends JFrame {
             }
         };
 
-        // 2. Formatters
-        DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter timeFmt = DateTimeFormatter.ofPattern("HH:mm");
-
-        // 3. Populate Rows
-        for (Event e : results) {
-            AdditionalInfo info = manager.getAdditionalInfo(e.getId());
-            model.addRow(new Object[]{
-                    e.getId(),                                  // Column 0: ID
-                    e.getStartDateTime().format(dateFmt),       // Column 1: Date
-                    e.getStartDateTime().format(timeFmt),       // Column 2: Time
-                    e.getTitle(),                               // Column 3: Title
-                    (info != null ? info.getCategory() : "-"),  // Column 4: Category
-                    (info != null ? info.getLocation() : "-")   // Column 5: Location
-            });
+        // 2. Populate Rows
+        for (Map.Entry<String, List<Event>> entry : results.entrySet()) {
+            CalendarManager owner = registry.getManager(entry.getKey());
+            for (Event e : entry.getValue()) {
+                model.addRow(searchRow(owner, entry.getKey(), e));
+            }
         }
 
+        // 3. Keep the rows current while the dialog is open
+        CalendarListener follow = change -> SwingUtilities.invokeLater(() -> updateSearchResults(model, query, change));
+        registry.addListener(follow);
+
         // 4. Create Table
         JTable table = new JTable(model);
         table.setRowHeight(25);
@@ -387,6 +457,92 @@ public class CalendarGUI extends JFrame {
 
         d.add(btnPanel, BorderLayout.SOUTH);
         d.setVisible(true);
+        registry.removeListener(follow); // Modal: the dialog is closed once setVisible returns
+    }
+
+    private Object[] searchRow(CalendarManager owner, String calendar, Event e) {
+        AdditionalInfo info = owner.getAdditionalInfo(e.getId());
+        return new Object[]{
+                e.getId(),                                  // Column 0: ID
+                e.getStartDateTime(displayZone).format(DATE_FMT), // Column 1: Date
+                e.getStartDateTime(displayZone).format(TIME_FMT), // Column 2: Time
+                e.getTitle(),                               // Column 3: Title
+                (info != null ? info.getCategory() : "-"),  // Column 4: Category
+                (info != null ? info.getLocation() : "-"),  // Column 5: Location
+                calendar                                    // Column 6: Calendar
+        };
+    }
+
+    // Replaces the changed event's row; a reloaded calendar has its rows searched again
+    private void updateSearchResults(DefaultTableModel model, String query, CalendarChange change) {
+        CalendarManager owner = change.getSource();
+        String calendar = registry.getName(owner);
+        if (calendar == null || !registry.isVisible(calendar)) return;
+        boolean reload = change.getType() == CalendarChange.Type.RELOADED;
+
+        for (int row = model.getRowCount() - 1; row >= 0; row--) {
+            if (calendar.equals(model.getValueAt(row, 6))
+                    && (reload || model.getValueAt(row, 0).equals(change.getEventId()))) {
+                model.removeRow(row);
+            }
+        }
+        if (reload) {
+            for (Event e : owner.search(query)) model.addRow(searchRow(owner, calendar, e));
+        } else if (change.getNewEvent() != null && owner.matchesSearch(change.getNewEvent(), query)) {
+            model.addRow(searchRow(owner, calendar, change.getNewEvent()));
+        }
+    }
+
+    private void switchActiveCalendar(String name) {
+        if (name == null) return;
+        manager = registry.getManager(name);
+        // The calendar new events go into should always be on screen
+        if (!registry.isVisible(name)) {
+            registry.setVisible(name, true);
+            refreshCalendar();
+        }
+    }
+
+    private void showCalendarsDialog() {
+        JDialog d = new JDialog(this, "Calendars", true);
+        d.setSize(300, 350);
+        d.setLocationRelativeTo(this);
+
+        JPanel listPanel = new JPanel();
+        listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
+        for (String name : registry.getCalendarNames()) {
+            JCheckBox box = new JCheckBox(name, registry.isVisible(name));
+            box.addActionListener(e -> {
+                registry.setVisible(name, box.isSelected());
+                refreshCalendar();
+            });
+            listPanel.add(box);
+        }
+        d.add(new JScrollPane(listPanel), BorderLayout.CENTER);
+
+        JPanel btnPanel = new JPanel();
+        JButton newBtn = new JButton("New Calendar");
+        JButton closeBtn = new JButton("Close");
+
+        newBtn.addActionListener(e -> {
+            String name = JOptionPane.showInputDialog(d, "Calendar Name:");
+            if (name == null) return;
+            String res = registry.createCalendar(name);
+            if (res.equals("SUCCESS")) {
+                calendarBox.addItem(name.trim());
+                d.dispose();
+                refreshCalendar();
+                showCalendarsDialog();
+            } else {
+                JOptionPane.showMessageDialog(d, res, "Calendars", JOptionPane.WARNING_MESSAGE);
+            }
+        });
+        closeBtn.addActionListener(e -> d.dispose());
+
+        btnPanel.add(newBtn);
+        btnPanel.add(closeBtn);
+        d.add(btnPanel, BorderLayout.SOUTH);
+        d.setVisible(true);
     }
 
     private void performBackup() {
@@ -396,7 +552,7 @@ public class CalendarGUI extends JFrame {
 
     private void performRestore() {
         String f = JOptionPane.showInputDialog("Restore Filename:");
-        if (f != null) { manager.restore(f); refreshCalendar(); JOptionPane.showMessageDialog(this, "Restored!"); }
+        if (f != null) { manager.restore(f); JOptionPane.showMessageDialog(this, "Restored!"); }
     }
 
     // Helper: Create a Spinner for Dates (YYYY-MM-DD)
@@ -428,6 +584,20 @@ public class CalendarGUI extends JFrame {
         return spinner;
     }
 
+    // Every known zone id, sorted; editable so an id can be typed instead of scrolled to
+    private JComboBox<String> createZoneBox(ZoneId selected) {
+        JComboBox<String> box = new JComboBox<>(new java.util.TreeSet<>(ZoneId.getAvailableZoneIds()).toArray(new String[0]));
+        box.setEditable(true);
+        box.setSelectedItem(selected.getId());
+        return box;
+    }
+
+    private void setDateTime(JSpinner dateSpinner, JSpinner timeSpinner, LocalDateTime value) {
+        Date d = Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+        dateSpinner.setValue(d);
+        timeSpinner.setValue(d);
+    }
+
     // Helper: Merge Date Spinner + Time Spinner -> LocalDateTime
     private LocalDateTime getLocalDateTime(JSpinner dateSpinner, JSpinner timeSpinner) {
         // Get values as legacy java.util.Date objects
@@ -442,15 +612,15 @@ public class CalendarGUI extends JFrame {
         return LocalDateTime.of(localDate, localTime.truncatedTo(ChronoUnit.MINUTES));
     }
 
-    private void showEditEventDialog(int eventId) {
-        Event event = manager.getEventById(eventId);
+    private void showEditEventDialog(CalendarManager owner, int eventId) {
+        Event event = owner.getEventById(eventId);
         if (event == null) return;
 
-        AdditionalInfo info = manager.getAdditionalInfo(eventId);
-        Recurrence rec = manager.getRecurrence(eventId);
+        AdditionalInfo info = owner.getAdditionalInfo(eventId);
+        Recurrence rec = owner.getRecurrence(eventId);
 
         JDialog d = new JDialog(this, "Edit Event", true);
-        d.setSize(500, 550);
+        d.setSize(520, 600);
         d.setLayout(new GridBagLayout());
         d.setLocationRelativeTo(this);
         GridBagConstraints gbc = new GridBagConstraints();
@@ -476,12 +646,14 @@ public class CalendarGUI extends JFrame {
         endDateSpinner.setValue(endUtil);
         endTimeSpinner.setValue(endUtil);
 
-        // --- RECURRENCE UPDATE: Use "Daily" / "Weekly" ---
-        String[] intervals = {"none", "Daily", "Weekly"};
-        JComboBox<String> recurBox = new JComboBox<>(intervals);
+        // --- RECURRENCE UPDATE: presets plus any custom rule ---
+        JComboBox<String> recurBox = new JComboBox<>(RECURRENCE_CHOICES);
+        recurBox.setEditable(true);
 
         JTextField recTimesF = new JTextField("0");
         JTextField recEndF = new JTextField("");
+        JTextField skipF = new JTextField("");
+        JComboBox<String> zoneF = createZoneBox(event.getZone()); // Times below are wall-clock in this zone
         JTextField locF = new JTextField(info != null ? info.getLocation() : "");
         JTextField catF = new JTextField(info != null ? info.getCategory() : "");
 
@@ -492,11 +664,12 @@ public class CalendarGUI extends JFrame {
             } else if (saved.equals("1w") || saved.equalsIgnoreCase("Weekly")) {
                 recurBox.setSelectedItem("Weekly");
             } else {
-                recurBox.setSelectedItem("none");
+                recurBox.setSelectedItem(saved); // Monthly, Yearly or a custom rule
             }
 
             recTimesF.setText(String.valueOf(rec.getTimes()));
             recEndF.setText(rec.getEndDate() != null ? rec.getEndDate().toString() : "");
+            skipF.setText(Recurrence.joinDates(rec.getExcludedDates()));
         }
 
         // --- Layout ---
@@ -527,14 +700,20 @@ public class CalendarGUI extends JFrame {
         gbc.gridx=0; gbc.gridy=6; d.add(new JLabel("Stop Date (YYYY-MM-DD):"), gbc);
         gbc.gridx=1; d.add(recEndF, gbc);
 
-        gbc.gridx=0; gbc.gridy=7; d.add(new JLabel("Location:"), gbc);
+        gbc.gridx=0; gbc.gridy=7; d.add(new JLabel("Skip Dates (YYYY-MM-DD;...):"), gbc);
+        gbc.gridx=1; d.add(skipF, gbc);
+
+        gbc.gridx=0; gbc.gridy=8; d.add(new JLabel("Location:"), gbc);
         gbc.gridx=1; d.add(locF, gbc);
 
-        gbc.gridx=0; gbc.gridy=8; d.add(new JLabel("Category:"), gbc);
+        gbc.gridx=0; gbc.gridy=9; d.add(new JLabel("Category:"), gbc);
         gbc.gridx=1; d.add(catF, gbc);
 
+        gbc.gridx=0; gbc.gridy=10; d.add(new JLabel("Time Zone:"), gbc);
+        gbc.gridx=1; d.add(zoneF, gbc);
+
         JButton saveBtn = new JButton("Update Event");
-        gbc.gridx=0; gbc.gridy=9; gbc.gridwidth=2;
+        gbc.gridx=0; gbc.gridy=11; gbc.gridwidth=2;
         d.add(saveBtn, gbc);
 
         // --- Save Action ---
@@ -548,19 +727,20 @@ public class CalendarGUI extends JFrame {
                     rEnd = LocalDate.parse(recEndF.getText().trim());
                 }
 
-                // Directly use the selected item ("Daily" or "Weekly")
+                // Preset or typed rule; an unknown rule is rejected by updateEvent
                 String selectedInterval = (String) recurBox.getSelectedItem();
 
-                manager.updateEvent(
+                owner.updateEvent(
                         eventId,
                         titleF.getText(), descF.getText(), start, end,
+                        ZoneId.of((String) zoneF.getSelectedItem()),
                         selectedInterval,
                         Integer.parseInt(recTimesF.getText()), rEnd,
+                        Recurrence.parseDates(skipF.getText()),
                         locF.getText(), catF.getText()
                 );
 
                 d.dispose();
-                refreshCalendar();
                 JOptionPane.showMessageDialog(this, "Event Updated!");
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(d, "Error: " + ex.getMessage());
@@ -0,0 +1,6 @@
+// Receives the changes a CalendarManager publishes (see CalendarChange).
+// Called on the writing thread while the manager's lock is held, in change order: keep it short
+// and hand UI work to the event dispatch thread.
+public interface CalendarListener {
+    void calendarChanged(CalendarChange change);
+}
@@ -1,132 +1,855 @@
 import java.time.*;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 public class CalendarManager {
+    private static final CalendarMetrics METRICS = CalendarMetrics.METRICS;
+    // Longest range findFreeSlots will sweep; every repeat in it is expanded
+    static final int MAX_FREE_SLOT_RANGE_DAYS = 366;
+
     private List<Event> events;
     private List<Recurrence> recurrences;
     private List<AdditionalInfo> additionalInfos;
-    private FileHandler fileHandler;
+    private CalendarStore store;
+
+    // Read-only copy of the events with their lookup indexes (eventId -> row). Queries run without
+    // the lock on the snapshot they started with; writes are serialized by the lock and publish a
+    // new snapshot, sharing all but the changed id's blocks with the old one.
+    private static final class Snapshot {
+        final Collection<Event> events;
+        final IdIndex<Event> eventIndex;
+        final IdIndex<Recurrence> recurrenceIndex;
+        final IdIndex<AdditionalInfo> additionalIndex;
+        final long version;
+
+        Snapshot(IdIndex<Event> eventIndex, IdIndex<Recurrence> recurrenceIndex,
+                 IdIndex<AdditionalInfo> additionalIndex, long version) {
+            this.events = eventIndex.values();
+            this.eventIndex = eventIndex;
+            this.recurrenceIndex = recurrenceIndex;
+            this.additionalIndex = additionalIndex;
+            this.version = version;
+        }
+
+        Snapshot with(int id, Event e, Recurrence r, AdditionalInfo a, long version) {
+            return new Snapshot(eventIndex.with(id, e), recurrenceIndex.with(id, r), additionalIndex.with(id, a), version);
+        }
+    }
+
+    private volatile Snapshot snapshot;
+    private int lastCreatedId;
+
+    // Change notification: every write bumps the version and is published to the listeners
+    private final List<CalendarListener> listeners = new CopyOnWriteArrayList<>();
+    private long version;
+    private int[] weekdayCounts; // Statistics, counted on first use and then kept up to date by publish()
+
+    // Month-partitioned storage: only the partitions a query needs are held in 'events'.
+    // 'coveredMonths' are the months whose every event (repeats included) is in the snapshot;
+    // queries check it without the lock and only take it to load something.
+    private volatile boolean partitioned;
+    private PartitionIndex partitionIndex;
+    private Set<YearMonth> loadedMonths = new HashSet<>();
+    private volatile Set<YearMonth> coveredMonths = ConcurrentHashMap.newKeySet();
+    private Set<YearMonth> dirtyMonths = new HashSet<>();
+
+    // Write-behind saving: edits only mark lists dirty, the AutoSaver writes them in batches
+    private final AutoSaver autoSaver;
+    private boolean eventsDirty;
+    private boolean recurrencesDirty;
+    private boolean additionalDirty;
+
+    // Zone that LocalDate/LocalDateTime arguments and results are in; events themselves hold instants
+    private volatile ZoneId zone = ZoneId.systemDefault();
+    private volatile ZoneConverter tz = ZoneConverter.of(zone);
 
     public CalendarManager() {
-        this.fileHandler = new FileHandler();
+        this(new FileHandler());
+    }
+
+    public CalendarManager(CalendarStore store) {
+        this.store = store;
+        // Row-updating stores already write a single event per edit, so they save synchronously
+        this.autoSaver = new AutoSaver(this::flushDirty, store instanceof RowUpdatingStore ? 0 : AutoSaver.DEFAULT_DELAY_MS);
         refresh();
+        store.watch(this::mergeExternal);
+    }
+
+    public synchronized void refresh() {
+        this.partitioned = store.isPartitioned();
+        if (partitioned) {
+            // Only the index is read now; each month's rows come in with its partition
+            this.events = new ArrayList<>();
+            this.recurrences = new ArrayList<>();
+            this.additionalInfos = new ArrayList<>();
+            this.partitionIndex = store.loadPartitionIndex();
+            this.loadedMonths = new HashSet<>();
+            this.coveredMonths = ConcurrentHashMap.newKeySet();
+            this.dirtyMonths = new HashSet<>();
+        } else {
+            this.events = store.loadEvents();
+            this.recurrences = store.loadRecurrences();
+            this.additionalInfos = store.loadAdditional();
+        }
+        this.eventsDirty = false;
+        this.recurrencesDirty = false;
+        this.additionalDirty = false;
+        publish(CalendarChange.Type.RELOADED, 0, null, null);
+    }
+
+    // Rebuilds the whole snapshot from the lists; loads and bulk changes only, single-event writes use publishRows
+    private void reindex() {
+        this.snapshot = new Snapshot(IdIndex.of(events, Event::getId), IdIndex.of(recurrences, Recurrence::getEventId),
+                IdIndex.of(additionalInfos, AdditionalInfo::getEventId), version);
+    }
+
+    // --- Change Notification ---
+    public void addListener(CalendarListener l) { listeners.add(l); }
+    public void removeListener(CalendarListener l) { listeners.remove(l); }
+
+    // Number of changes made so far; a view built from this version only needs later changes
+    public long getVersion() { return snapshot.version; }
+
+    // Ends a bulk write (lock held): bumps the version, rebuilds the snapshot and tells the listeners
+    private void publish(CalendarChange.Type type, int id, Event oldEvent, Recurrence oldRecurrence) {
+        publish(Collections.singletonList(new Edit(type, id, oldEvent, oldRecurrence)));
+    }
+
+    // One event's part of a write; the new rows are taken from the snapshot once the write is done
+    private static final class Edit {
+        final CalendarChange.Type type;
+        final int id;
+        final Event oldEvent;
+        final Recurrence oldRecurrence;
+
+        Edit(CalendarChange.Type type, int id, Event oldEvent, Recurrence oldRecurrence) {
+            this.type = type;
+            this.id = id;
+            this.oldEvent = oldEvent;
+            this.oldRecurrence = oldRecurrence;
+        }
+    }
+
+    // A write touching several events publishes one snapshot holding all of them, numbered as
+    // that many changes, so a view built from it skips every one of them
+    private void publish(List<Edit> edits) {
+        long first = version;
+        version += edits.size();
+        reindex();
+        notifyListeners(edits, first);
+    }
+
+    // Ends a write of one event's rows (lock held): only that id's index blocks are copied
+    private void publishRows(CalendarChange.Type type, int id, Event oldEvent, Recurrence oldRecurrence,
+                             Event event, Recurrence recurrence, AdditionalInfo info) {
+        long first = version++;
+        snapshot = snapshot.with(id, event, recurrence, info, version);
+        notifyListeners(Collections.singletonList(new Edit(type, id, oldEvent, oldRecurrence)), first);
+    }
+
+    private void notifyListeners(List<Edit> edits, long first) {
+        Snapshot s = snapshot;
+        for (int i = 0; i < edits.size(); i++) {
+            Edit e = edits.get(i);
+            long v = first + i + 1;
+            CalendarChange change = e.type == CalendarChange.Type.RELOADED
+                    ? new CalendarChange(this, e.type, v, 0, null, null, null, null)
+                    : new CalendarChange(this, e.type, v, e.id, e.oldEvent, e.oldRecurrence, s.eventIndex.get(e.id), s.recurrenceIndex.get(e.id));
+            countWeekdays(change);
+            for (CalendarListener l : listeners) {
+                try {
+                    l.calendarChanged(change);
+                } catch (RuntimeException ex) {
+                    // A failing view must not undo or block the write
+                    System.out.println("Listener Error: " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // --- Live Reload ---
+    // Rows edited outside the app, reported by the store's watch thread. Only events whose rows
+    // really differ become changes. The changed lists are marked dirty again: a flush that copied
+    // them before this merge may still be writing, and its older copy would drop the new rows.
+    private synchronized void mergeExternal(StoreDelta delta) {
+        if (partitioned) return;
+        Snapshot before = snapshot;
+        // While our own edits wait for the AutoSaver, a rewritten file may lack them: only add/replace then
+        Set<Integer> touched = new LinkedHashSet<>();
+        if (delta.getEvents() != null) {
+            Set<Integer> ids = mergeRows(events, delta.getEvents(), delta.isComplete() && !eventsDirty, Event::getId, Event::toCSV);
+            eventsDirty |= !ids.isEmpty();
+            touched.addAll(ids);
+        }
+        if (delta.getRecurrences() != null) {
+            Set<Integer> ids = mergeRows(recurrences, delta.getRecurrences(), delta.isComplete() && !recurrencesDirty, Recurrence::getEventId, Recurrence::toCSV);
+            recurrencesDirty |= !ids.isEmpty();
+            touched.addAll(ids);
+        }
+        if (delta.getAdditional() != null) {
+            Set<Integer> ids = mergeRows(additionalInfos, delta.getAdditional(), delta.isComplete() && !additionalDirty, AdditionalInfo::getEventId, AdditionalInfo::toCSV);
+            additionalDirty |= !ids.isEmpty();
+            touched.addAll(ids);
+        }
+        if (touched.isEmpty()) return;
+        autoSaver.requestSave();
+
+        Set<Integer> present = new HashSet<>();
+        for (Event e : events) present.add(e.getId());
+        List<Edit> edits = new ArrayList<>();
+        for (int id : touched) {
+            Event old = before.eventIndex.get(id);
+            if (old == null && !present.contains(id)) continue; // Rows of an event that is not there
+            CalendarChange.Type type = old == null ? CalendarChange.Type.CREATED
+                    : present.contains(id) ? CalendarChange.Type.UPDATED : CalendarChange.Type.DELETED;
+            edits.add(new Edit(type, id, old, before.recurrenceIndex.get(id)));
+        }
+        if (edits.isEmpty()) reindex();
+        else publish(edits);
+    }
+
+    // A row replaces the one with its id, or is added; with 'complete' the rows are the whole
+    // list and rows whose id is missing go. Returns the ids whose rows changed.
+    private static <T> Set<Integer> mergeRows(List<T> list, List<T> rows, boolean complete,
+                                              java.util.function.ToIntFunction<T> idOf,
+                                              java.util.function.Function<T, String> csvOf) {
+        Map<Integer, T> incoming = new LinkedHashMap<>();
+        for (T row : rows) incoming.put(idOf.applyAsInt(row), row); // The last row for an id wins
+        Set<Integer> changed = new HashSet<>();
+        List<T> merged = new ArrayList<>(list.size() + incoming.size());
+        for (T cur : list) {
+            int id = idOf.applyAsInt(cur);
+            T row = incoming.remove(id);
+            if (row == null) {
+                if (complete) changed.add(id);
+                else merged.add(cur);
+            } else if (csvOf.apply(row).equals(csvOf.apply(cur))) {
+                merged.add(cur);
+            } else {
+                merged.add(row);
+                changed.add(id);
+            }
+        }
+        for (T row : incoming.values()) {
+            merged.add(row);
+            changed.add(idOf.applyAsInt(row));
+        }
+        list.clear();
+        list.addAll(merged);
+        return changed;
+    }
+
+    // --- Partitioned Storage: Range Loading ---
+    // Converts this calendar to one event file per month (no-op if it already is)
+    public void enablePartitionedStorage() {
+        if (partitioned) return;
+        flush();
+        store.partitionEvents(events, recurrences, additionalInfos);
+        refresh();
+    }
+
+    public boolean isPartitioned() { return partitioned; }
+
+    CalendarStore getStore() { return store; }
+
+    // Makes sure every event that can appear in [from, to] is in memory
+    private void ensureLoaded(YearMonth from, YearMonth to) {
+        if (!partitioned) return;
+        Set<YearMonth> covered = coveredMonths;
+        boolean all = true;
+        for (YearMonth ym = from; all && !ym.isAfter(to); ym = ym.plusMonths(1)) all = covered.contains(ym);
+        if (all) {
+            METRICS.partitionCacheHits.increment();
+            return;
+        }
+        loadPartitions(from, to);
+    }
+
+    private synchronized void loadPartitions(YearMonth from, YearMonth to) {
+        if (!partitioned) return;
+        boolean changed = false;
+        for (YearMonth ym : partitionIndex.partitionsFor(from, to)) changed |= loadPartition(ym);
+        if (changed) reindex();
+        // Marked only once the snapshot holds them. Months without a partition file count too, so new events can go there
+        for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
+            loadedMonths.add(ym);
+            coveredMonths.add(ym);
+        }
+    }
+
+    // Loads just these partitions, without the series reaching into them; enough to hold rows
+    // found by id or by the store's search
+    private synchronized void loadStartMonths(Collection<YearMonth> months) {
+        if (!partitioned) return;
+        boolean changed = false;
+        for (YearMonth ym : months) changed |= loadPartition(ym);
+        if (changed) reindex();
+    }
+
+    // Caller holds the lock and reindexes when this returns true
+    private boolean loadPartition(YearMonth ym) {
+        if (!loadedMonths.add(ym)) {
+            METRICS.partitionCacheHits.increment();
+            return false;
+        }
+        METRICS.partitionCacheMisses.increment();
+        events.addAll(store.loadEventPartition(ym));
+        recurrences.addAll(store.loadRecurrencePartition(ym));
+        additionalInfos.addAll(store.loadAdditionalPartition(ym));
+        return true;
     }
 
-    public void refresh() {
-        this.events = fileHandler.loadEvents();
-        this.recurrences = fileHandler.loadRecurrences();
-        this.additionalInfos = fileHandler.loadAdditional();
+    // Partitions are keyed by each event's own wall-clock month, which can be up to two days away
+    // from the same instant's date in this calendar's zone
+    private void ensureLoadedAround(LocalDate from, LocalDate to) {
+        ensureLoaded(YearMonth.from(from.minusDays(2)), YearMonth.from(to.plusDays(2)));
+    }
+
+    public ZoneId getZone() { return zone; }
+
+    public synchronized void setZone(ZoneId zone) {
+        this.zone = zone;
+        this.tz = ZoneConverter.of(zone);
+        this.weekdayCounts = null; // Weekdays are this zone's
+    }
+
+    // Whole-history features (search, statistics, backup) need every partition
+    private void ensureAllLoaded() {
+        if (!partitioned) return;
+        NavigableSet<YearMonth> months = partitionIndex.getMonths();
+        if (months.isEmpty()) return;
+        ensureLoaded(months.first(), months.last());
     }
 
     // --- Core Logic: Add Event with Conflict Detection ---
     public String createEvent(String title, String desc, LocalDateTime start, LocalDateTime end,
                               String recInt, int recTimes, LocalDate recEnd,
                               String loc, String cat) {
+        return createEvent(title, desc, start, end, getZone(), recInt, recTimes, recEnd, Collections.emptySet(), loc, cat);
+    }
+
+    // start/end are wall-clock times in eventZone; repeats keep that wall-clock time across DST changes
+    public synchronized String createEvent(String title, String desc, LocalDateTime start, LocalDateTime end, ZoneId eventZone,
+                              String recInt, int recTimes, LocalDate recEnd, Set<LocalDate> skipDates,
+                              String loc, String cat) {
+
+        if (isRecurring(recInt) && RecurrenceRule.parse(recInt) == null) {
+            return "ERROR: Unknown recurrence rule: " + recInt;
+        }
+
+        ZoneConverter ez = ZoneConverter.of(eventZone);
+        long startSec = ez.toEpochSecond(start);
+        long endSec = ez.toEpochSecond(end);
 
         // 1. Conflict Detection (Feature: Conflict Detection)
-        if (hasConflict(start, end)) {
+        if (hasConflict(startSec, endSec)) {
             return "CONFLICT: Event overlaps with an existing event!";
         }
 
-        int newId = events.stream().mapToInt(Event::getId).max().orElse(0) + 1;
+        int newId = snapshot.eventIndex.maxId() + 1;
+        if (partitioned) newId = Math.max(newId, partitionIndex.getMaxId() + 1);
 
-        Event newEvent = new Event(newId, title, desc, start, end);
+        Event newEvent = new Event(newId, title, desc, startSec, endSec, eventZone);
         events.add(newEvent);
+        lastCreatedId = newId;
+        dirtyMonths.add(YearMonth.from(start));
 
-        if (recInt != null && !recInt.equals("none")) {
-            recurrences.add(new Recurrence(newId, recInt, recTimes, recEnd));
+        Recurrence newRec = null;
+        if (isRecurring(recInt)) {
+            newRec = new Recurrence(newId, recInt, recTimes, recEnd, skipDates);
+            recurrences.add(newRec);
         }
 
+        AdditionalInfo newInfo = null;
         if (loc != null || cat != null) {
-            additionalInfos.add(new AdditionalInfo(newId, loc == null ? "" : loc, cat == null ? "" : cat));
+            newInfo = new AdditionalInfo(newId, loc == null ? "" : loc, cat == null ? "" : cat);
+            additionalInfos.add(newInfo);
         }
 
-        saveAll();
+        publishRows(CalendarChange.Type.CREATED, newId, null, null, newEvent, newRec, newInfo);
+        persist(newId, true, isRecurring(recInt), loc != null || cat != null);
         return "SUCCESS";
     }
 
-    private boolean hasConflict(LocalDateTime start, LocalDateTime end) {
-        for (Event e : events) {
-            // Check overlap: (StartA < EndB) and (EndA > StartB)
-            if (start.isBefore(e.getEndDateTime()) && end.isAfter(e.getStartDateTime())) {
-                return true;
+    // Id given to the event of the last successful createEvent; read it while holding the
+    // manager's lock across both calls to be sure it is yours
+    public synchronized int getLastCreatedId() { return lastCreatedId; }
+
+    private static boolean isRecurring(String recInt) {
+        return recInt != null && !recInt.trim().isEmpty() && !recInt.equals("none");
+    }
+
+    // Package-private so the benchmarks can time it without createEvent's write
+    boolean hasConflict(long start, long end) {
+        long t0 = System.nanoTime();
+        ensureLoadedAround(LocalDate.ofEpochDay(Math.floorDiv(start, 86400)), LocalDate.ofEpochDay(Math.floorDiv(end, 86400)));
+        boolean conflict = false;
+        for (Event e : snapshot.events) {
+            // Check overlap on epoch seconds: (StartA < EndB) and (EndA > StartB)
+            if (start < e.getEndEpochSecond() && end > e.getStartEpochSecond()) {
+                conflict = true;
+                break;
             }
             // Note: Advanced conflict detection for recurring instances is complex; 
             // checking root events is sufficient for this scope.
         }
-        return false;
+        METRICS.conflictCheck.record(System.nanoTime() - t0);
+        return conflict;
     }
 
-    public void deleteEvent(int id) {
-        events.removeIf(e -> e.getId() == id);
-        recurrences.removeIf(r -> r.getEventId() == id);
-        additionalInfos.removeIf(a -> a.getEventId() == id);
-        saveAll();
+    // --- Feature: Free Slot Finder ---
+    // First 'maxSlots' free stretches of at least 'length' in [from, to), counting every occurrence
+    // of recurring events as busy. With workStart/workEnd set, only time between them on each day
+    // is offered (a free afternoon and the next free morning are separate slots).
+    public List<TimeSlot> findFreeSlots(LocalDateTime from, LocalDateTime to, Duration length,
+                                        LocalTime workStart, LocalTime workEnd, int maxSlots) {
+        if (workStart != null && workEnd != null && !workStart.isBefore(workEnd)) {
+            throw new IllegalArgumentException("Working hours must start before they end");
+        }
+        if (length.isNegative() || length.isZero()) {
+            throw new IllegalArgumentException("Slot length must be positive");
+        }
+        if (from.plusDays(MAX_FREE_SLOT_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_FREE_SLOT_RANGE_DAYS + " days");
+        }
+        List<TimeSlot> slots = new ArrayList<>();
+        if (!from.isBefore(to) || maxSlots <= 0) return slots;
+
+        // Events are decoded to seconds once from one snapshot, then the range is swept one month
+        // at a time so the first slots are found without expanding every repeat in it.
+        // Busy intervals are clipped to the chunk; 'freeFrom' carries an open gap into the next chunk.
+        ensureLoadedAround(from.toLocalDate(), to.toLocalDate());
+        Snapshot snap = snapshot;
+        long[] evStart = new long[snap.events.size()];
+        long[] evEnd = new long[evStart.length];
+        List<Event> series = new ArrayList<>();
+        int singles = 0;
+        for (Event e : snap.events) {
+            if (snap.recurrenceIndex.containsKey(e.getId())) {
+                series.add(e);
+            } else {
+                evStart[singles] = e.getStartEpochSecond();
+                evEnd[singles++] = e.getEndEpochSecond();
+            }
+        }
+
+        long freeFrom = toSeconds(from);
+        long[] starts = new long[64];
+        long[] ends = new long[64];
+        for (LocalDateTime chunkStart = from; chunkStart.isBefore(to); ) {
+            LocalDateTime next = chunkStart.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+            LocalDateTime chunkEnd = next.isBefore(to) ? next : to;
+
+            int n = 0;
+            long cs = toSeconds(chunkStart);
+            long ce = toSeconds(chunkEnd);
+            for (int k = 0; k < singles; k++) {
+                if (evStart[k] < ce && evEnd[k] > cs) {
+                    if (n == starts.length) { starts = Arrays.copyOf(starts, n * 2); ends = Arrays.copyOf(ends, n * 2); }
+                    starts[n] = Math.max(evStart[k], cs);
+                    ends[n++] = Math.min(evEnd[k], ce);
+                }
+            }
+            for (Event e : series) {
+                long dur = e.getDurationSeconds();
+                Recurrence r = snap.recurrenceIndex.get(e.getId());
+                // Occurrences that started before the chunk may still run into it; dates are in the
+                // event's zone, which can be two days off this calendar's
+                LocalDate start = e.getStartDateTime().toLocalDate();
+                LocalDate first = chunkStart.toLocalDate().minusDays(dur / 86400 + 2);
+                for (LocalDate d = r.nextOccurrenceOnOrAfter(start, first); d != null; d = r.nextOccurrenceOnOrAfter(start, d.plusDays(1))) {
+                    long a = e.getOccurrenceStart(d);
+                    if (a >= ce) break;
+                    if (a + dur <= cs) continue;
+                    if (n == starts.length) { starts = Arrays.copyOf(starts, n * 2); ends = Arrays.copyOf(ends, n * 2); }
+                    starts[n] = Math.max(a, cs);
+                    ends[n++] = Math.min(a + dur, ce);
+                }
+            }
+
+            // Sweep line: starts and ends sorted independently, free while no interval is open
+            Arrays.sort(starts, 0, n);
+            Arrays.sort(ends, 0, n);
+            int open = 0;
+            for (int i = 0, j = 0; i < n || j < n; ) {
+                if (i < n && starts[i] <= ends[j]) {
+                    if (open++ == 0) addFreeSlots(slots, freeFrom, starts[i], length, workStart, workEnd, maxSlots);
+                    i++;
+                } else {
+                    if (--open == 0) freeFrom = ends[j];
+                    j++;
+                }
+            }
+            if (slots.size() >= maxSlots) return slots;
+            chunkStart = chunkEnd;
+        }
+        addFreeSlots(slots, freeFrom, toSeconds(to), length, workStart, workEnd, maxSlots);
+        return slots;
+    }
+
+    // Convenience for "next free slot": the first fitting gap within the next 'days' days
+    public TimeSlot findFirstFreeSlot(LocalDateTime from, Duration length, LocalTime workStart, LocalTime workEnd, int days) {
+        List<TimeSlot> slots = findFreeSlots(from, from.plusDays(days), length, workStart, workEnd, 1);
+        return slots.isEmpty() ? null : slots.get(0);
+    }
+
+    // Splits the gap [a, b) into per-day working-hour windows and keeps those long enough
+    private void addFreeSlots(List<TimeSlot> slots, long a, long b, Duration length,
+                              LocalTime workStart, LocalTime workEnd, int maxSlots) {
+        long min = length.getSeconds();
+        if (b - a < min) return;
+        if (workStart == null || workEnd == null) {
+            if (slots.size() < maxSlots) slots.add(new TimeSlot(tz.toLocalDateTime(a), tz.toLocalDateTime(b)));
+            return;
+        }
+        LocalDate lastDay = tz.toLocalDate(b);
+        for (LocalDate day = tz.toLocalDate(a); !day.isAfter(lastDay) && slots.size() < maxSlots; day = day.plusDays(1)) {
+            long s = Math.max(a, tz.toEpochSecond(day, workStart.toSecondOfDay()));
+            long e = Math.min(b, tz.toEpochSecond(day, workEnd.toSecondOfDay()));
+            if (e - s >= min) slots.add(new TimeSlot(tz.toLocalDateTime(s), tz.toLocalDateTime(e)));
+        }
+    }
+
+    private long toSeconds(LocalDateTime t) {
+        return tz.toEpochSecond(t);
+    }
+
+    public synchronized void deleteEvent(int id) {
+        Event old = getEventById(id);
+        Recurrence oldRec = getRecurrence(id);
+        if (old != null) dirtyMonths.add(YearMonth.from(old.getStartDateTime()));
+        if (partitioned) partitionIndex.removeSeries(id);
+        boolean ev = events.removeIf(e -> e.getId() == id);
+        boolean rec = recurrences.removeIf(r -> r.getEventId() == id);
+        boolean add = additionalInfos.removeIf(a -> a.getEventId() == id);
+        publishRows(CalendarChange.Type.DELETED, id, old, oldRec, null, null, null);
+        persist(id, ev, rec, add);
     }
 
+    // Records one event's changes: written in place when the store supports it,
+    // otherwise the touched lists are marked dirty for the next AutoSaver flush
+    private void persist(int id, boolean ev, boolean rec, boolean add) {
+        if (!(store instanceof RowUpdatingStore)) {
+            eventsDirty |= ev;
+            recurrencesDirty |= rec;
+            additionalDirty |= add;
+            autoSaver.requestSave();
+            return;
+        }
+        Snapshot s = snapshot;
+        Event e = s.eventIndex.get(id);
+        Recurrence r = s.recurrenceIndex.get(id);
+        RowUpdatingStore rows = (RowUpdatingStore) store;
+        if (e == null) rows.deleteEventRows(id);
+        else rows.saveEventRows(e, r, s.additionalIndex.get(id));
+
+        if (partitioned) {
+            if (e != null) partitionIndex.setSeries(e, r);
+            else partitionIndex.removeSeries(id);
+        }
+        dirtyMonths.clear();
+    }
+
+    // Writes all three lists now and waits for it
     public void saveAll() {
-        fileHandler.saveEvents(events);
-        fileHandler.saveRecurrences(recurrences);
-        fileHandler.saveAdditional(additionalInfos);
+        synchronized (this) {
+            eventsDirty = true;
+            recurrencesDirty = true;
+            additionalDirty = true;
+        }
+        autoSaver.flushNow();
+    }
+
+    // Writes whatever is dirty now and waits for it (window close, before restore, ...)
+    public void flush() { autoSaver.flushNow(); }
+
+    // Final flush and no more live reload; the calendar keeps working but saves synchronously afterwards
+    public void close() {
+        store.stopWatching();
+        autoSaver.close();
+    }
+
+    // Runs on the AutoSaver thread: copies the dirty lists under the lock, writes them outside it
+    private void flushDirty() {
+        List<Event> ev = null;
+        List<Recurrence> rec = null;
+        List<AdditionalInfo> add = null;
+        Map<YearMonth, MonthRows> months = null;
+
+        synchronized (this) {
+            if (partitioned) {
+                // A partition holds all three kinds of rows, so any change rewrites its month
+                if (eventsDirty || recurrencesDirty || additionalDirty) months = snapshotDirtyPartitions();
+            } else {
+                if (eventsDirty) ev = new ArrayList<>(events);
+                if (recurrencesDirty) rec = new ArrayList<>(recurrences);
+                if (additionalDirty) add = new ArrayList<>(additionalInfos);
+            }
+            eventsDirty = false;
+            recurrencesDirty = false;
+            additionalDirty = false;
+        }
+
+        if (months != null) {
+            for (Map.Entry<YearMonth, MonthRows> m : months.entrySet()) {
+                MonthRows rows = m.getValue();
+                store.saveEventPartition(m.getKey(), rows.events, rows.recurrences, rows.additional);
+            }
+            store.savePartitionIndex(partitionIndex);
+        }
+        if (ev != null) store.saveEvents(ev);
+        if (rec != null) store.saveRecurrences(rec);
+        if (add != null) store.saveAdditional(add);
+    }
+
+    // The rows of one month's partition
+    private static final class MonthRows {
+        final List<Event> events = new ArrayList<>();
+        final List<Recurrence> recurrences = new ArrayList<>();
+        final List<AdditionalInfo> additional = new ArrayList<>();
     }
 
-    public void backup(String path) { fileHandler.backupData(path, events, recurrences, additionalInfos); }
-    public void restore(String path) { fileHandler.restoreData(path); refresh(); }
+    // Rows of the month files touched since the last save; also brings the index up to date.
+    // Recurrence and detail rows go to their event's month.
+    private Map<YearMonth, MonthRows> snapshotDirtyPartitions() {
+        Map<YearMonth, MonthRows> months = new TreeMap<>();
+        for (YearMonth ym : dirtyMonths) months.put(ym, new MonthRows());
+        for (Event e : events) {
+            MonthRows rows = months.get(YearMonth.from(e.getStartDateTime()));
+            if (rows != null) rows.events.add(e);
+        }
+        Snapshot s = snapshot;
+        for (Recurrence r : recurrences) {
+            MonthRows rows = monthRows(months, s.eventIndex.get(r.getEventId()));
+            if (rows != null) rows.recurrences.add(r);
+        }
+        for (AdditionalInfo a : additionalInfos) {
+            MonthRows rows = monthRows(months, s.eventIndex.get(a.getEventId()));
+            if (rows != null) rows.additional.add(a);
+        }
+        for (Map.Entry<YearMonth, MonthRows> m : months.entrySet()) partitionIndex.setMonth(m.getKey(), m.getValue().events);
+        dirtyMonths.clear();
+
+        // Series rows are refreshed for every loaded event; events in unloaded months keep their entry
+        for (Event e : events) partitionIndex.setSeries(e, s.recurrenceIndex.get(e.getId()));
+        return months;
+    }
+
+    private static MonthRows monthRows(Map<YearMonth, MonthRows> months, Event e) {
+        return e == null ? null : months.get(YearMonth.from(e.getStartDateTime()));
+    }
+
+    public void backup(String path) { ensureAllLoaded(); store.backupData(path, events, recurrences, additionalInfos); }
+    public void restore(String path) { flush(); store.restoreData(path); refresh(); }
+
+    // --- Bulk Operations (CLI) ---
+    // Adds the given rows under fresh ids, without conflict checks; rows are linked by their old ids.
+    // Returns how many events were added.
+    public synchronized int importEvents(List<Event> newEvents, List<Recurrence> newRecurrences, List<AdditionalInfo> newInfos) {
+        Map<Integer, Recurrence> recById = new HashMap<>();
+        for (Recurrence r : newRecurrences) recById.putIfAbsent(r.getEventId(), r);
+        Map<Integer, AdditionalInfo> infoById = new HashMap<>();
+        for (AdditionalInfo a : newInfos) infoById.putIfAbsent(a.getEventId(), a);
+
+        int nextId = snapshot.eventIndex.maxId() + 1;
+        if (partitioned) nextId = Math.max(nextId, partitionIndex.getMaxId() + 1);
+
+        List<Integer> ids = new ArrayList<>();
+        for (Event e : newEvents) {
+            YearMonth ym = YearMonth.from(e.getStartDateTime());
+            ensureLoaded(ym, ym); // A partition is rewritten whole, so it must be in memory first
+            int id = nextId++;
+            events.add(new Event(id, e.getTitle(), e.getDescription(), e.getStartEpochSecond(), e.getEndEpochSecond(), e.getZone()));
+            dirtyMonths.add(ym);
+
+            Recurrence r = recById.get(e.getId());
+            if (r != null) recurrences.add(new Recurrence(id, r.getInterval(), r.getTimes(), r.getEndDate(), r.getExcludedDates()));
+            AdditionalInfo a = infoById.get(e.getId());
+            if (a != null) additionalInfos.add(new AdditionalInfo(id, a.getLocation(), a.getCategory()));
+            ids.add(id);
+        }
+        publish(CalendarChange.Type.RELOADED, 0, null, null);
+        Snapshot s = snapshot;
+        for (int id : ids) {
+            persist(id, true, s.recurrenceIndex.containsKey(id), s.additionalIndex.containsKey(id));
+        }
+        return ids.size();
+    }
+
+    // Drops recurrence/additional rows whose event is gone and duplicate rows for one event,
+    // then rewrites every file. Returns the number of rows removed.
+    public int compact() {
+        int removed;
+        synchronized (this) {
+            ensureAllLoaded();
+            int before = events.size() + recurrences.size() + additionalInfos.size();
+            Set<Integer> seen = new HashSet<>();
+            events.removeIf(e -> !seen.add(e.getId()));
+            Set<Integer> seenRec = new HashSet<>();
+            recurrences.removeIf(r -> !seen.contains(r.getEventId()) || !seenRec.add(r.getEventId()));
+            Set<Integer> seenAdd = new HashSet<>();
+            additionalInfos.removeIf(a -> !seen.contains(a.getEventId()) || !seenAdd.add(a.getEventId()));
+            removed = before - events.size() - recurrences.size() - additionalInfos.size();
+            if (partitioned) dirtyMonths.addAll(loadedMonths);
+            publish(CalendarChange.Type.RELOADED, 0, null, null);
+        }
+        saveAll();
+        return removed;
+    }
+
+    // Every event row, ordered by id
+    public List<Event> getAllEvents() {
+        ensureAllLoaded();
+        List<Event> all = new ArrayList<>(snapshot.events);
+        all.sort(Comparator.comparingInt(Event::getId));
+        return all;
+    }
+
+    // Every occurrence starting between 'from' and 'to' (inclusive, this calendar's zone), in start
+    // order. A repeat is returned as a copy of its event (same id) moved to the repeat's time.
+    public List<Event> getOccurrences(LocalDate from, LocalDate to) {
+        ensureLoadedAround(from, to);
+        Snapshot s = snapshot;
+        long lo = tz.toEpochSecond(from, 0);
+        long hi = tz.toEpochSecond(to.plusDays(1), 0);
+        List<Event> result = new ArrayList<>();
+        for (Event e : s.events) {
+            Recurrence r = s.recurrenceIndex.get(e.getId());
+            if (r == null) {
+                if (e.getStartEpochSecond() >= lo && e.getStartEpochSecond() < hi) result.add(e);
+                continue;
+            }
+            LocalDate start = e.getStartDateTime().toLocalDate();
+            LocalDate stop = to.plusDays(2);
+            for (LocalDate d = r.nextOccurrenceOnOrAfter(start, from.minusDays(2));
+                 d != null && !d.isAfter(stop);
+                 d = r.nextOccurrenceOnOrAfter(start, d.plusDays(1))) {
+                long t = e.getOccurrenceStart(d);
+                if (t < lo || t >= hi) continue;
+                result.add(t == e.getStartEpochSecond() ? e
+                        : new Event(e.getId(), e.getTitle(), e.getDescription(), t, t + e.getDurationSeconds(), e.getZone()));
+            }
+        }
+        result.sort(Comparator.comparingLong(Event::getStartEpochSecond).thenComparingInt(Event::getId));
+        return result;
+    }
 
     // --- Helper: Expand Recurring Events for a Date ---
+    // 'date' is in this calendar's zone; an event is on it when one of its occurrences starts there
     public List<Event> getEventsForDate(LocalDate date) {
+        ensureLoadedAround(date, date);
+        Snapshot s = snapshot;
         List<Event> dailyEvents = new ArrayList<>();
-        for (Event e : events) {
-            if (isEventOnDate(e, date)) {
+        for (Event e : s.events) {
+            if (occurrenceOn(e, s.recurrenceIndex.get(e.getId()), date) != NO_OCCURRENCE) {
                 dailyEvents.add(e);
             }
         }
         return dailyEvents;
     }
 
-    // In CalendarManager.java
+    // Start (in this calendar's zone) of the occurrence of 'e' on 'date', or null if it has none
+    public LocalDateTime getOccurrenceStart(Event e, LocalDate date) {
+        long t = occurrenceOn(e, getRecurrence(e.getId()), date);
+        return t == NO_OCCURRENCE ? null : tz.toLocalDateTime(t);
+    }
 
-    private boolean isEventOnDate(Event e, LocalDate target) {
-        LocalDate start = e.getStartDateTime().toLocalDate();
-        if (start.equals(target)) return true; // Exact match
+    // --- Helper: Occurrence counts for a whole month (one slot per day) ---
+    public int[] getEventCountsForMonth(YearMonth ym) {
+        return getEventCountsForMonth(ym, null);
+    }
 
-        Recurrence r = recurrences.stream().filter(rec -> rec.getEventId() == e.getId()).findFirst().orElse(null);
-        if (r == null || target.isBefore(start)) return false;
+    // Also puts the version the counts were taken at into 'versions', when given
+    public int[] getEventCountsForMonth(YearMonth ym, Map<CalendarManager, Long> versions) {
+        long t0 = System.nanoTime();
+        LocalDate first = ym.atDay(1);
+        LocalDate last = ym.atEndOfMonth();
+        ensureLoadedAround(first, last);
+        Snapshot s = snapshot;
+        int[] counts = new int[ym.lengthOfMonth()];
+        for (Event e : s.events) {
+            addOccurrenceCounts(e, s.recurrenceIndex.get(e.getId()), first, last, counts, 1);
+        }
+        if (versions != null) versions.put(this, s.version);
+        METRICS.monthRender.record(System.nanoTime() - t0);
+        return counts;
+    }
 
-        long diff = ChronoUnit.DAYS.between(start, target);
-        boolean intervalMatch = false;
+    // Brings counts from getEventCountsForMonth(ym) up to date with one change: the old rows'
+    // occurrences are taken out and the new rows' put in (RELOADED changes need a full recount)
+    public void applyChange(CalendarChange change, YearMonth ym, int[] counts) {
+        LocalDate first = ym.atDay(1);
+        LocalDate last = ym.atEndOfMonth();
+        if (change.getOldEvent() != null) addOccurrenceCounts(change.getOldEvent(), change.getOldRecurrence(), first, last, counts, -1);
+        if (change.getNewEvent() != null) addOccurrenceCounts(change.getNewEvent(), change.getNewRecurrence(), first, last, counts, 1);
+    }
 
-        if (r.getInterval().equals("Daily")) intervalMatch = true;
-        else if (r.getInterval().equals("Weekly")) intervalMatch = (diff % 7 == 0);
+    // Adds 'delta' to counts[day - first] for each occurrence of 'e' starting in [first, last]
+    private void addOccurrenceCounts(Event e, Recurrence r, LocalDate first, LocalDate last, int[] counts, int delta) {
+        int length = counts.length;
+        long firstDay = first.toEpochDay();
+        if (r == null) {
+            long day = tz.toEpochDay(e.getStartEpochSecond()) - firstDay;
+            if (day >= 0 && day < length) counts[(int) day] += delta;
+            return;
+        }
+        LocalDate start = e.getStartDateTime().toLocalDate();
+        if (e.getZoneConverter() == tz) {
+            // Same zone: occurrence dates are already this calendar's dates
+            for (LocalDate d = r.nextOccurrenceOnOrAfter(start, first);
+                 d != null && !d.isAfter(last);
+                 d = r.nextOccurrenceOnOrAfter(start, d.plusDays(1))) {
+                counts[(int) (d.toEpochDay() - firstDay)] += delta;
+            }
+            return;
+        }
+        // Jump from one occurrence to the next, then place each instant on this zone's calendar
+        LocalDate stop = last.plusDays(2);
+        for (LocalDate d = r.nextOccurrenceOnOrAfter(start, first.minusDays(2));
+             d != null && !d.isAfter(stop);
+             d = r.nextOccurrenceOnOrAfter(start, d.plusDays(1))) {
+            long day = tz.toEpochDay(e.getOccurrenceStart(d)) - firstDay;
+            if (day >= 0 && day < length) counts[(int) day] += delta;
+        }
+    }
 
-        if (intervalMatch) {
-            // Check stop limits
-            if (r.getEndDate() != null) return !target.isAfter(r.getEndDate());
+    private static final long NO_OCCURRENCE = Long.MIN_VALUE;
 
-            // BUG FIX HERE:
-            if (r.getTimes() > 0) {
-                long count = r.getInterval().equals("Weekly") ? diff / 7 : diff;
-                // Change '<' to '<=' so that 'times=1' allows exactly 1 repetition.
-                return count <= r.getTimes();
-            }
-            return true; // No limit (Infinite if times is 0 and date is null)
+    // Epoch second of the occurrence starting on 'target' in this calendar's zone
+    private long occurrenceOn(Event e, Recurrence r, LocalDate target) {
+        if (r == null) {
+            return tz.toEpochDay(e.getStartEpochSecond()) == target.toEpochDay() ? e.getStartEpochSecond() : NO_OCCURRENCE;
+        }
+        LocalDate start = e.getStartDateTime().toLocalDate();
+        if (e.getZoneConverter() == tz) {
+            // Stop limits (end date wins over times) and skipped dates are handled by the recurrence
+            return r.occursOn(start, target) ? e.getOccurrenceStart(target) : NO_OCCURRENCE;
+        }
+        // The same instant's date in the event's zone is at most two days away
+        LocalDate stop = target.plusDays(2);
+        for (LocalDate d = r.nextOccurrenceOnOrAfter(start, target.minusDays(2));
+             d != null && !d.isAfter(stop);
+             d = r.nextOccurrenceOnOrAfter(start, d.plusDays(1))) {
+            long t = e.getOccurrenceStart(d);
+            if (tz.toEpochDay(t) == target.toEpochDay()) return t;
         }
-        return false;
+        return NO_OCCURRENCE;
     }
 
     // --- Feature: Reminders (Upcoming events) ---
     public String getUpcomingReminders() {
         StringBuilder sb = new StringBuilder();
-        LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now(getZone());
         List<Event> todaysEvents = getEventsForDate(today);
 
         if (todaysEvents.isEmpty()) return "No events for today.";
 
         sb.append("You have ").append(todaysEvents.size()).append(" event(s) today:\n");
         for (Event e : todaysEvents) {
-            sb.append("- ").append(e.getTitle()).append(" at ").append(e.getStartDateTime().toLocalTime()).append("\n");
+            LocalDateTime at = getOccurrenceStart(e, today);
+            sb.append("- ").append(e.getTitle()).append(" at ").append(at.toLocalTime()).append("\n");
         }
         return sb.toString();
     }
@@ -134,41 +857,89 @@ public class CalendarManager {
     // --- Feature: Statistics ---
     public String getStatistics() {
         // Find busiest day of the week based on ALL stored events (simplified)
-        Map<DayOfWeek, Integer> freq = new HashMap<>();
-        for (Event e : events) {
-            DayOfWeek dow = e.getStartDateTime().getDayOfWeek();
-            freq.put(dow, freq.getOrDefault(dow, 0) + 1);
+        ensureAllLoaded();
+        int[] counts;
+        synchronized (this) {
+            if (weekdayCounts == null) {
+                weekdayCounts = new int[7];
+                for (Event e : events) weekdayCounts[weekdayIndex(e)]++;
+            }
+            counts = weekdayCounts.clone();
         }
 
-        return freq.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(entry -> "Busiest Day: " + entry.getKey() + " (" + entry.getValue() + " events)")
-                .orElse("Not enough data for statistics.");
+        int busiest = 0;
+        for (int i = 1; i < 7; i++) if (counts[i] > counts[busiest]) busiest = i;
+        if (counts[busiest] == 0) return "Not enough data for statistics.";
+        return "Busiest Day: " + DayOfWeek.of(busiest + 1) + " (" + counts[busiest] + " events)";
+    }
+
+    // Keeps the statistics counters in step with a change instead of recounting (lock held)
+    private void countWeekdays(CalendarChange change) {
+        if (change.getType() == CalendarChange.Type.RELOADED) weekdayCounts = null;
+        if (weekdayCounts == null) return;
+        if (change.getOldEvent() != null) weekdayCounts[weekdayIndex(change.getOldEvent())]--;
+        if (change.getNewEvent() != null) weekdayCounts[weekdayIndex(change.getNewEvent())]++;
+    }
+
+    private int weekdayIndex(Event e) {
+        return tz.toLocalDate(e.getStartEpochSecond()).getDayOfWeek().getValue() - 1;
     }
 
     // --- Feature: Advanced Search ---
     public List<Event> search(String query) {
+        long t0 = System.nanoTime();
+        List<Event> hits = store.searchEvents(query);
+        List<Event> results = hits == null ? searchInMemory(query) : withDetails(hits);
+        METRICS.search.record(System.nanoTime() - t0);
+        METRICS.searchHits.add(results.size());
+        return results;
+    }
+
+    private List<Event> searchInMemory(String query) {
         String q = query.toLowerCase();
         List<Event> results = new ArrayList<>();
+        ensureAllLoaded();
+        Snapshot s = snapshot;
 
-        for (Event e : events) {
+        for (Event e : s.events) {
             // Find associated additional info (Location/Category)
-            AdditionalInfo info = additionalInfos.stream()
-                    .filter(a -> a.getEventId() == e.getId()).findFirst().orElse(null);
-
-            String cat = (info != null) ? info.getCategory().toLowerCase() : "";
-            String loc = (info != null) ? info.getLocation().toLowerCase() : "";
-
-            // Search in Title, Category, OR Location
-            if (e.getTitle().toLowerCase().contains(q) || cat.contains(q) || loc.contains(q)) {
+            if (matches(e, s.additionalIndex.get(e.getId()), q)) {
                 results.add(e);
             }
         }
         return results;
     }
 
+    // Store hits can come from months that are not loaded: their partitions are loaded so the
+    // hits' detail rows are there for getAdditionalInfo and matchesSearch
+    private List<Event> withDetails(List<Event> hits) {
+        Set<YearMonth> months = new TreeSet<>();
+        for (Event e : hits) months.add(YearMonth.from(e.getStartDateTime()));
+        loadStartMonths(months);
+        Snapshot s = snapshot;
+        List<Event> results = new ArrayList<>(hits.size());
+        for (Event e : hits) {
+            Event loaded = s.eventIndex.get(e.getId());
+            results.add(loaded != null ? loaded : e);
+        }
+        return results;
+    }
+
+    // Whether 'search(query)' would return the event; lets an open result list follow changes
+    public boolean matchesSearch(Event e, String query) {
+        return matches(e, getAdditionalInfo(e.getId()), query.toLowerCase());
+    }
+
+    private static boolean matches(Event e, AdditionalInfo info, String q) {
+        String cat = (info != null) ? info.getCategory().toLowerCase() : "";
+        String loc = (info != null) ? info.getLocation().toLowerCase() : "";
+
+        // Search in Title, Category, OR Location
+        return e.getTitle().toLowerCase().contains(q) || cat.contains(q) || loc.contains(q);
+    }
+
     public AdditionalInfo getAdditionalInfo(int eventId) {
-        return additionalInfos.stream().filter(a -> a.getEventId() == eventId).findFirst().orElse(null);
+        return snapshot.additionalIndex.get(eventId);
     }
 
     // Add this inside CalendarManager.java
@@ -176,37 +947,68 @@ public class CalendarManager {
     public void updateEvent(int id, String title, String desc, LocalDateTime start, LocalDateTime end,
                             String recInt, int recTimes, LocalDate recEnd,
                             String loc, String cat) {
+        updateEvent(id, title, desc, start, end, getZone(), recInt, recTimes, recEnd, Collections.emptySet(), loc, cat);
+    }
+
+    public synchronized void updateEvent(int id, String title, String desc, LocalDateTime start, LocalDateTime end, ZoneId eventZone,
+                            String recInt, int recTimes, LocalDate recEnd, Set<LocalDate> skipDates,
+                            String loc, String cat) {
+        if (isRecurring(recInt) && RecurrenceRule.parse(recInt) == null) {
+            throw new IllegalArgumentException("Unknown recurrence rule: " + recInt);
+        }
 
         // 1. Replace the Core Event object
+        Event old = getEventById(id);
+        Recurrence oldRec = getRecurrence(id);
+        if (old != null) dirtyMonths.add(YearMonth.from(old.getStartDateTime()));
+        ensureLoaded(YearMonth.from(start), YearMonth.from(start));
+        dirtyMonths.add(YearMonth.from(start));
+
+        Event updated = null;
         for (int i = 0; i < events.size(); i++) {
             if (events.get(i).getId() == id) {
-                events.set(i, new Event(id, title, desc, start, end));
+                updated = new Event(id, title, desc, start, end, eventZone);
+                events.set(i, updated);
                 break;
             }
         }
 
         // 2. Update Recurrence (Remove old, add new if exists)
         recurrences.removeIf(r -> r.getEventId() == id);
-        if (recInt != null && !recInt.equals("none")) {
-            recurrences.add(new Recurrence(id, recInt, recTimes, recEnd));
+        Recurrence newRec = null;
+        if (isRecurring(recInt)) {
+            newRec = new Recurrence(id, recInt, recTimes, recEnd, skipDates);
+            recurrences.add(newRec);
         }
 
         // 3. Update Additional Info (Remove old, add new)
         additionalInfos.removeIf(a -> a.getEventId() == id);
+        AdditionalInfo newInfo = null;
         if (loc != null || cat != null) {
-            additionalInfos.add(new AdditionalInfo(id, loc == null ? "" : loc, cat == null ? "" : cat));
+            newInfo = new AdditionalInfo(id, loc == null ? "" : loc, cat == null ? "" : cat);
+            additionalInfos.add(newInfo);
         }
 
-        saveAll();
+        publishRows(CalendarChange.Type.UPDATED, id, old, oldRec, updated, newRec, newInfo);
+        persist(id, true, true, true);
     }
 
     // Helper to get a single event by ID (needed for the GUI)
     public Event getEventById(int id) {
-        return events.stream().filter(e -> e.getId() == id).findFirst().orElse(null);
+        Event e = snapshot.eventIndex.get(id);
+        if (e != null || !partitioned) return e;
+        // Not in a loaded month: ids above every partition's highest were never given out, any
+        // other is looked up by id and only its month is loaded
+        if (id > partitionIndex.getMaxId()) return null;
+        Event stored = store.findEvent(id);
+        if (stored == null) return null;
+        YearMonth ym = YearMonth.from(stored.getStartDateTime());
+        ensureLoaded(ym, ym);
+        return snapshot.eventIndex.get(id);
     }
 
     // Helper to get Recurrence by ID
     public Recurrence getRecurrence(int eventId) {
-        return recurrences.stream().filter(r -> r.getEventId() == eventId).findFirst().orElse(null);
+        return snapshot.recurrenceIndex.get(eventId);
     }
 }
\ No newline at end of file
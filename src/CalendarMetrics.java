@@ -0,0 +1,110 @@
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide latency histograms and counters for the CalendarManager / FileHandler hot paths.
+// Call sites read System.nanoTime() around the work and call record()/add(); both only update
+// preallocated atomics, so instrumentation allocates nothing.
+//
+// Exposed as the JMX MBean "fop.calendar:type=Metrics" (unless -Dcalendar.metrics.jmx=false). With -Dcalendar.metrics.log.seconds=N
+// (N > 0) a summary is also printed every N seconds.
+public class CalendarMetrics implements CalendarMetricsMBean {
+    public static final CalendarMetrics METRICS = new CalendarMetrics();
+
+    public final LatencyHistogram load = new LatencyHistogram();
+    public final LatencyHistogram save = new LatencyHistogram();
+    public final LatencyHistogram search = new LatencyHistogram();
+    public final LatencyHistogram conflictCheck = new LatencyHistogram();
+    public final LatencyHistogram monthRender = new LatencyHistogram();
+
+    public final LongAdder loadBytes = new LongAdder();
+    public final LongAdder saveBytes = new LongAdder();
+    public final LongAdder searchHits = new LongAdder();
+    public final LongAdder partitionCacheHits = new LongAdder();
+    public final LongAdder partitionCacheMisses = new LongAdder();
+
+    private CalendarMetrics() {
+        // -Dcalendar.metrics.jmx=false skips starting the platform MBean server (short-lived CLI runs)
+        if (Boolean.parseBoolean(System.getProperty("calendar.metrics.jmx", "true"))) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(this, new ObjectName("fop.calendar:type=Metrics"));
+            } catch (Exception | LinkageError e) {
+                // JMX missing or name taken: metrics are still collected, just not exported
+                System.out.println("Metrics Error: " + e.getMessage());
+            }
+        }
+
+        long period = Long.getLong("calendar.metrics.log.seconds", 0);
+        if (period > 0) {
+            ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "calendar-metrics-log");
+                t.setDaemon(true);
+                return t;
+            });
+            logger.scheduleAtFixedRate(() -> System.out.println(dump()), period, period, TimeUnit.SECONDS);
+        }
+    }
+
+    // --- MBean ---
+    @Override public long getLoadCount() { return load.getCount(); }
+    @Override public long getLoadP99Micros() { return micros(load.getPercentileNanos(99)); }
+    @Override public long getLoadBytes() { return loadBytes.sum(); }
+    @Override public long getSaveCount() { return save.getCount(); }
+    @Override public long getSaveP99Micros() { return micros(save.getPercentileNanos(99)); }
+    @Override public long getSaveBytes() { return saveBytes.sum(); }
+
+    @Override public long getSearchCount() { return search.getCount(); }
+    @Override public long getSearchP50Micros() { return micros(search.getPercentileNanos(50)); }
+    @Override public long getSearchP99Micros() { return micros(search.getPercentileNanos(99)); }
+    @Override public long getSearchHits() { return searchHits.sum(); }
+
+    @Override public long getConflictCheckCount() { return conflictCheck.getCount(); }
+    @Override public long getConflictCheckP99Micros() { return micros(conflictCheck.getPercentileNanos(99)); }
+
+    @Override public long getMonthRenderCount() { return monthRender.getCount(); }
+    @Override public long getMonthRenderP50Micros() { return micros(monthRender.getPercentileNanos(50)); }
+    @Override public long getMonthRenderP99Micros() { return micros(monthRender.getPercentileNanos(99)); }
+
+    @Override public long getPartitionCacheHits() { return partitionCacheHits.sum(); }
+    @Override public long getPartitionCacheMisses() { return partitionCacheMisses.sum(); }
+    @Override public double getPartitionCacheHitRate() {
+        long hits = partitionCacheHits.sum();
+        long total = hits + partitionCacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder("Calendar metrics:\n");
+        line(sb, "load", load).append(", bytes=").append(loadBytes.sum()).append('\n');
+        line(sb, "save", save).append(", bytes=").append(saveBytes.sum()).append('\n');
+        line(sb, "search", search).append(", hits=").append(searchHits.sum()).append('\n');
+        line(sb, "conflictCheck", conflictCheck).append('\n');
+        line(sb, "monthRender", monthRender).append('\n');
+        sb.append("  partitionCache hits=").append(partitionCacheHits.sum())
+                .append(" misses=").append(partitionCacheMisses.sum())
+                .append(String.format(" hitRate=%.2f", getPartitionCacheHitRate()));
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram h : new LatencyHistogram[]{load, save, search, conflictCheck, monthRender}) h.reset();
+        for (LongAdder a : new LongAdder[]{loadBytes, saveBytes, searchHits, partitionCacheHits, partitionCacheMisses}) a.reset();
+    }
+
+    private static StringBuilder line(StringBuilder sb, String name, LatencyHistogram h) {
+        return sb.append("  ").append(name)
+                .append(" count=").append(h.getCount())
+                .append(" mean=").append(micros(h.getMeanNanos())).append("us")
+                .append(" p50=").append(micros(h.getPercentileNanos(50))).append("us")
+                .append(" p99=").append(micros(h.getPercentileNanos(99))).append("us")
+                .append(" max=").append(micros(h.getMaxNanos())).append("us");
+    }
+
+    private static long micros(long nanos) { return nanos / 1000; }
+}
@@ -0,0 +1,28 @@
+// JMX view of CalendarMetrics (domain "fop.calendar", type=Metrics). Times are in microseconds.
+public interface CalendarMetricsMBean {
+    long getLoadCount();
+    long getLoadP99Micros();
+    long getLoadBytes();
+    long getSaveCount();
+    long getSaveP99Micros();
+    long getSaveBytes();
+
+    long getSearchCount();
+    long getSearchP50Micros();
+    long getSearchP99Micros();
+    long getSearchHits();
+
+    long getConflictCheckCount();
+    long getConflictCheckP99Micros();
+
+    long getMonthRenderCount();
+    long getMonthRenderP50Micros();
+    long getMonthRenderP99Micros();
+
+    long getPartitionCacheHits();
+    long getPartitionCacheMisses();
+    double getPartitionCacheHitRate();
+
+    String dump();
+    void reset();
+}
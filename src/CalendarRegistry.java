@@ -0,0 +1,224 @@
+import java.io.File;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Keeps track of the named calendars. Each calendar is its own shard (directory + CalendarManager).
+// The default calendar lives in the working directory so existing data keeps working;
+// every other calendar lives in CALENDAR_ROOT/<name>/.
+public class CalendarRegistry {
+    public static final String DEFAULT_CALENDAR = "Default";
+    private static final String CALENDAR_ROOT = "calendars";
+
+    private final File root;
+    private final Map<String, File> shards = new LinkedHashMap<>();
+    private final Map<String, CalendarManager> loaded = new ConcurrentHashMap<>();
+    private final Set<String> visible = new LinkedHashSet<>();
+    private volatile ZoneId zone = ZoneId.systemDefault();
+    private final List<CalendarListener> listeners = new CopyOnWriteArrayList<>();
+
+    public CalendarRegistry() {
+        this(new File("."));
+    }
+
+    public CalendarRegistry(File baseDir) {
+        this.root = new File(baseDir, CALENDAR_ROOT);
+        shards.put(DEFAULT_CALENDAR, baseDir);
+
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs != null) {
+            Arrays.sort(dirs);
+            for (File d : dirs) {
+                if (!d.getName().equals(DEFAULT_CALENDAR)) shards.put(d.getName(), d);
+            }
+        }
+        visible.add(DEFAULT_CALENDAR);
+    }
+
+    public synchronized List<String> getCalendarNames() { return new ArrayList<>(shards.keySet()); }
+
+    public synchronized List<String> getVisibleCalendars() { return new ArrayList<>(visible); }
+
+    public synchronized boolean isVisible(String name) { return visible.contains(name); }
+
+    // Hidden calendars are never loaded; showing one loads it on the next query that needs it
+    public synchronized void setVisible(String name, boolean show) {
+        if (!shards.containsKey(name)) return;
+        if (show) visible.add(name);
+        else visible.remove(name);
+    }
+
+    public String createCalendar(String name) {
+        String clean = name == null ? "" : name.trim();
+        if (clean.isEmpty() || !clean.matches("[A-Za-z0-9 _-]+")) {
+            return "ERROR: Calendar names may only contain letters, digits, spaces, '-' and '_'.";
+        }
+        synchronized (this) {
+            if (shards.containsKey(clean)) return "ERROR: Calendar already exists.";
+
+            File dir = new File(root, clean);
+            if (!dir.mkdirs()) return "ERROR: Could not create " + dir.getPath();
+            shards.put(clean, dir);
+            visible.add(clean);
+        }
+        return "SUCCESS";
+    }
+
+    // Lazy load: the shard's files are read the first time the calendar is used
+    public CalendarManager getManager(String name) {
+        File dir;
+        synchronized (this) { dir = shards.get(name); }
+        if (dir == null) return null;
+        return loaded.computeIfAbsent(name, n -> {
+            CalendarManager m = new CalendarManager(openStore(dir));
+            m.setZone(zone);
+            for (CalendarListener l : listeners) m.addListener(l);
+            return m;
+        });
+    }
+
+    // Listens to every calendar, including ones loaded later; change.getSource() tells them apart
+    public void addListener(CalendarListener l) {
+        listeners.add(l);
+        for (CalendarManager m : loaded.values()) m.addListener(l);
+    }
+
+    public void removeListener(CalendarListener l) {
+        listeners.remove(l);
+        for (CalendarManager m : loaded.values()) m.removeListener(l);
+    }
+
+    // Name a loaded calendar is registered under, or null
+    public String getName(CalendarManager manager) {
+        for (Map.Entry<String, CalendarManager> e : loaded.entrySet()) {
+            if (e.getValue() == manager) return e.getKey();
+        }
+        return null;
+    }
+
+    // Display zone: dates passed to and returned from every calendar are in this zone
+    public ZoneId getZone() { return zone; }
+
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+        for (CalendarManager m : loaded.values()) m.setZone(zone);
+    }
+
+    // -Dcalendar.store=h2 or =sqlite keeps each calendar in an embedded database file inside
+    // its shard directory; anything else (the default) keeps the CSV files. A database created
+    // here starts with the rows of the CSV files next to it, which are left as they are.
+    private static CalendarStore openStore(File dir) {
+        String kind = System.getProperty("calendar.store", "csv");
+        String url = null;
+        File dbFile = null;
+        if (kind.equalsIgnoreCase("h2")) {
+            url = "jdbc:h2:" + new File(dir, "calendar").getAbsolutePath();
+            dbFile = new File(dir, "calendar.mv.db");
+        } else if (kind.equalsIgnoreCase("sqlite")) {
+            url = "jdbc:sqlite:" + new File(dir, "calendar.db").getAbsolutePath();
+            dbFile = new File(dir, "calendar.db");
+        }
+        if (url == null) return new FileHandler(dir);
+
+        try {
+            boolean created = !dbFile.exists();
+            JdbcCalendarStore store = new JdbcCalendarStore(url);
+            if (created) copyCsvFiles(dir, store);
+            return store;
+        } catch (SQLException e) {
+            System.out.println("Database Error: " + e.getMessage() + " (falling back to CSV files)");
+            return new FileHandler(dir);
+        }
+    }
+
+    // Copies a calendar's CSV rows into its database store (see openStore), e.g. one created
+    // empty before imports were done; the manager is reloaded. Returns the number of events
+    // copied: 0 if there were none, -1 if the calendar keeps CSV files or its database has events.
+    public int migrateCsv(String name) {
+        CalendarManager m = getManager(name);
+        if (m == null || !(m.getStore() instanceof JdbcCalendarStore)) return -1;
+        File dir;
+        synchronized (this) { dir = shards.get(name); }
+        m.flush();
+        int copied = copyCsvFiles(dir, m.getStore());
+        if (copied > 0) m.refresh();
+        return copied;
+    }
+
+    // Package-private for the tests
+    static int copyCsvFiles(File dir, CalendarStore target) {
+        if (!target.loadPartitionIndex().getMonths().isEmpty()) return -1;
+        FileHandler csv = new FileHandler(dir);
+        List<Event> events = new ArrayList<>();
+        List<Recurrence> recurrences = new ArrayList<>();
+        List<AdditionalInfo> additional = new ArrayList<>();
+        if (csv.isPartitioned()) {
+            for (YearMonth ym : csv.loadPartitionIndex().getMonths()) {
+                events.addAll(csv.loadEventPartition(ym));
+                recurrences.addAll(csv.loadRecurrencePartition(ym));
+                additional.addAll(csv.loadAdditionalPartition(ym));
+            }
+        } else {
+            events = csv.loadEvents();
+            recurrences = csv.loadRecurrences();
+            additional = csv.loadAdditional();
+        }
+        if (events.isEmpty()) return 0;
+        target.saveEvents(events);
+        target.saveRecurrences(recurrences);
+        target.saveAdditional(additional);
+        return events.size();
+    }
+
+    // Final flush of every calendar that was loaded (window close)
+    public void closeAll() {
+        for (CalendarManager m : loaded.values()) m.close();
+    }
+
+    // --- Fan-out queries over the visible calendars ---
+    public int[] getEventCountsForMonth(YearMonth ym) {
+        return getEventCountsForMonth(ym, null);
+    }
+
+    // 'versions' (thread-safe, or null) receives the version each calendar was counted at
+    public int[] getEventCountsForMonth(YearMonth ym, Map<CalendarManager, Long> versions) {
+        return getVisibleCalendars().parallelStream()
+                .map(name -> getManager(name).getEventCountsForMonth(ym, versions))
+                .reduce(new int[ym.lengthOfMonth()], CalendarRegistry::sum);
+    }
+
+    // Results are keyed by calendar name, in the order the calendars are listed
+    public Map<String, List<Event>> getEventsForDate(LocalDate date) {
+        List<String> names = getVisibleCalendars();
+        List<List<Event>> results = names.parallelStream()
+                .map(name -> getManager(name).getEventsForDate(date))
+                .toList();
+        return zip(names, results);
+    }
+
+    public Map<String, List<Event>> search(String query) {
+        List<String> names = getVisibleCalendars();
+        List<List<Event>> results = names.parallelStream()
+                .map(name -> getManager(name).search(query))
+                .toList();
+        return zip(names, results);
+    }
+
+    private static int[] sum(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        for (int i = 0; i < a.length; i++) out[i] = a[i] + b[i];
+        return out;
+    }
+
+    private static Map<String, List<Event>> zip(List<String> names, List<List<Event>> results) {
+        Map<String, List<Event>> merged = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (!results.get(i).isEmpty()) merged.put(names.get(i), results.get(i));
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,319 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Local HTTP/JSON service in front of the calendars, for other tools on the same machine.
+// Reads run concurrently on each manager's snapshot; writes are serialized by the manager's lock.
+//
+//   java -cp fop-calendar.jar CalendarServer [--port PORT] [--dir DIR] [--zone ZONE]
+//
+//   GET    /events?from=YYYY-MM-DD&to=YYYY-MM-DD   occurrences starting in the range (inclusive)
+//   GET    /events/{id}                            one event with its recurrence and details
+//   POST   /events                                 create (form fields, see readEventForm)
+//   PUT    /events/{id}                            replace (same fields as POST)
+//   DELETE /events/{id}
+//   GET    /search?q=TEXT
+//   GET    /free?from=DATETIME&to=DATETIME&minutes=N[&workStart=HH:MM&workEnd=HH:MM&limit=N]
+//
+// Every request takes an optional calendar=NAME parameter (default: the default calendar).
+// Times are ISO wall-clock times in the server's zone unless a request gives its own zone.
+public class CalendarServer {
+    private static final String USAGE = "Usage: CalendarServer [--port PORT] [--dir DIR] [--zone ZONE]";
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_FREE_SLOTS = 10;
+
+    private final CalendarRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public CalendarServer(CalendarRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        // Loopback only: the service has no authentication
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/events", this::handleEvents);
+        server.createContext("/search", this::handleSearch);
+        server.createContext("/free", this::handleFree);
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int port = DEFAULT_PORT;
+        String dir = ".";
+        ZoneId zone = ZoneId.systemDefault();
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+                switch (args[i]) {
+                    case "--port": port = Integer.parseInt(args[i + 1]); break;
+                    case "--dir": dir = args[i + 1]; break;
+                    case "--zone": zone = ZoneId.of(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Server Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        CalendarRegistry registry = new CalendarRegistry(new File(dir));
+        registry.setZone(zone);
+        try {
+            CalendarServer server = new CalendarServer(registry, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            server.start();
+            System.out.println("Calendar server listening on http://localhost:" + server.getPort());
+        } catch (IOException e) {
+            System.err.println("Server Error: " + e.getMessage());
+            registry.closeAll();
+            System.exit(1);
+        }
+    }
+
+    public void start() { server.start(); }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    // Stops accepting requests, lets running ones finish, then saves every calendar
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        registry.closeAll();
+    }
+
+    // One virtual thread per request on JDK 21+ (looked up reflectively, the app targets 16);
+    // on older JDKs a bounded pool of platform threads
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "calendar-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // --- Handlers ---
+    private void handleEvents(HttpExchange ex) throws IOException {
+        try {
+            Map<String, String> query = parseForm(ex.getRequestURI().getRawQuery());
+            CalendarManager manager = manager(query);
+            String rest = ex.getRequestURI().getPath().substring("/events".length());
+            String method = ex.getRequestMethod();
+
+            if (rest.isEmpty() || rest.equals("/")) {
+                if (method.equals("GET")) {
+                    List<Event> events = manager.getOccurrences(LocalDate.parse(required(query, "from")), LocalDate.parse(required(query, "to")));
+                    send(ex, 200, eventArray(manager, events));
+                } else if (method.equals("POST")) {
+                    createEvent(ex, manager);
+                } else {
+                    sendError(ex, 405, "Method not allowed");
+                }
+                return;
+            }
+
+            int id = Integer.parseInt(rest.substring(1));
+            boolean found;
+            switch (method) {
+                case "GET":
+                    Event e = manager.getEventById(id);
+                    if (e == null) sendError(ex, 404, "No event " + id);
+                    else send(ex, 200, eventJson(manager, e));
+                    break;
+                case "PUT":
+                    EventForm f = readEventForm(ex, manager);
+                    // Lookup and change under one lock, so a concurrent delete cannot slip in between
+                    synchronized (manager) {
+                        found = manager.getEventById(id) != null;
+                        if (found) manager.updateEvent(id, f.title, f.description, f.start, f.end, f.zone,
+                                f.recurrence, f.times, f.recurEnd, f.skipDates, f.location, f.category);
+                    }
+                    if (found) send(ex, 200, eventJson(manager, manager.getEventById(id)));
+                    else sendError(ex, 404, "No event " + id);
+                    break;
+                case "DELETE":
+                    synchronized (manager) {
+                        found = manager.getEventById(id) != null;
+                        if (found) manager.deleteEvent(id);
+                    }
+                    if (found) send(ex, 200, Json.object("deleted", id));
+                    else sendError(ex, 404, "No event " + id);
+                    break;
+                default:
+                    sendError(ex, 405, "Method not allowed");
+            }
+        } catch (RuntimeException e) {
+            badRequest(ex, e);
+        }
+    }
+
+    private void createEvent(HttpExchange ex, CalendarManager manager) throws IOException {
+        EventForm f = readEventForm(ex, manager);
+        String result;
+        int id;
+        // Holding the lock across both calls makes the id the one this request created
+        synchronized (manager) {
+            result = manager.createEvent(f.title, f.description, f.start, f.end, f.zone,
+                    f.recurrence, f.times, f.recurEnd, f.skipDates, f.location, f.category);
+            id = manager.getLastCreatedId();
+        }
+        if (result.equals("SUCCESS")) send(ex, 201, eventJson(manager, manager.getEventById(id)));
+        else if (result.startsWith("CONFLICT")) sendError(ex, 409, result.substring(result.indexOf(':') + 1).trim());
+        else sendError(ex, 400, result.substring(result.indexOf(':') + 1).trim());
+    }
+
+    private void handleSearch(HttpExchange ex) throws IOException {
+        try {
+            if (!ex.getRequestMethod().equals("GET")) {
+                sendError(ex, 405, "Method not allowed");
+                return;
+            }
+            Map<String, String> query = parseForm(ex.getRequestURI().getRawQuery());
+            CalendarManager manager = manager(query);
+            send(ex, 200, eventArray(manager, manager.search(required(query, "q"))));
+        } catch (RuntimeException e) {
+            badRequest(ex, e);
+        }
+    }
+
+    private void handleFree(HttpExchange ex) throws IOException {
+        try {
+            if (!ex.getRequestMethod().equals("GET")) {
+                sendError(ex, 405, "Method not allowed");
+                return;
+            }
+            Map<String, String> query = parseForm(ex.getRequestURI().getRawQuery());
+            CalendarManager manager = manager(query);
+            List<TimeSlot> slots = manager.findFreeSlots(
+                    LocalDateTime.parse(required(query, "from")), LocalDateTime.parse(required(query, "to")),
+                    Duration.ofMinutes(Long.parseLong(required(query, "minutes"))),
+                    query.containsKey("workStart") ? LocalTime.parse(query.get("workStart")) : null,
+                    query.containsKey("workEnd") ? LocalTime.parse(query.get("workEnd")) : null,
+                    query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : DEFAULT_FREE_SLOTS);
+            StringBuilder sb = new StringBuilder("[");
+            for (TimeSlot s : slots) {
+                if (sb.length() > 1) sb.append(',');
+                sb.append(Json.object("start", s.getStart(), "end", s.getEnd(), "minutes", s.getDuration().toMinutes()));
+            }
+            send(ex, 200, sb.append(']').toString());
+        } catch (RuntimeException e) {
+            badRequest(ex, e);
+        }
+    }
+
+    // --- Requests ---
+    private CalendarManager manager(Map<String, String> query) {
+        String name = query.getOrDefault("calendar", CalendarRegistry.DEFAULT_CALENDAR);
+        CalendarManager manager = registry.getManager(name);
+        if (manager == null) throw new NoSuchElementException("No calendar named " + name);
+        return manager;
+    }
+
+    // Fields of a POST/PUT body (application/x-www-form-urlencoded)
+    private static class EventForm {
+        String title, description, recurrence, location, category;
+        LocalDateTime start, end;
+        ZoneId zone;
+        int times;
+        LocalDate recurEnd;
+        Set<LocalDate> skipDates;
+    }
+
+    // title, start and end are required; description, zone (default: server zone), recurrence
+    // (rule text, default none), times, recurEnd, skipDates (YYYY-MM-DD;...), location and category are not
+    private static EventForm readEventForm(HttpExchange ex, CalendarManager manager) throws IOException {
+        Map<String, String> form;
+        try (InputStream in = ex.getRequestBody()) {
+            form = parseForm(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        EventForm f = new EventForm();
+        // The data files are comma-separated without quoting, like the GUI's text fields
+        f.title = required(form, "title").replace(",", " ");
+        f.description = form.getOrDefault("description", "").replace(",", " ");
+        f.start = LocalDateTime.parse(required(form, "start"));
+        f.end = LocalDateTime.parse(required(form, "end"));
+        if (!f.end.isAfter(f.start)) throw new IllegalArgumentException("end must be after start");
+        f.zone = form.containsKey("zone") ? ZoneId.of(form.get("zone")) : manager.getZone();
+        f.recurrence = form.getOrDefault("recurrence", "none");
+        f.times = Integer.parseInt(form.getOrDefault("times", "0"));
+        f.recurEnd = form.containsKey("recurEnd") && !form.get("recurEnd").isEmpty() ? LocalDate.parse(form.get("recurEnd")) : null;
+        f.skipDates = Recurrence.parseDates(form.getOrDefault("skipDates", ""));
+        f.location = form.containsKey("location") ? form.get("location").replace(",", " ") : null;
+        f.category = form.containsKey("category") ? form.get("category").replace(",", " ") : null;
+        return f;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String v = params.get(name);
+        if (v == null || v.isEmpty()) throw new IllegalArgumentException("Missing parameter " + name);
+        return v;
+    }
+
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    // --- Responses ---
+    // Times are in the calendar's zone; 'zone' is the zone the event was planned in
+    private static String eventJson(CalendarManager manager, Event e) {
+        ZoneId zone = manager.getZone();
+        Recurrence r = manager.getRecurrence(e.getId());
+        AdditionalInfo info = manager.getAdditionalInfo(e.getId());
+        return Json.object(
+                "id", e.getId(), "title", e.getTitle(), "description", e.getDescription(),
+                "start", e.getStartDateTime(zone), "end", e.getEndDateTime(zone), "zone", e.getZone().getId(),
+                "recurrence", r != null ? r.getInterval() : null,
+                "location", info != null ? info.getLocation() : null,
+                "category", info != null ? info.getCategory() : null);
+    }
+
+    private static String eventArray(CalendarManager manager, List<Event> events) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Event e : events) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(eventJson(manager, e));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void badRequest(HttpExchange ex, RuntimeException e) throws IOException {
+        if (e instanceof NoSuchElementException) sendError(ex, 404, e.getMessage());
+        else sendError(ex, 400, e instanceof DateTimeException || e instanceof NumberFormatException
+                ? "Malformed value: " + e.getMessage() : e.getMessage());
+    }
+
+    private static void sendError(HttpExchange ex, int status, String message) throws IOException {
+        send(ex, status, Json.object("error", message));
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
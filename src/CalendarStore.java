@@ -0,0 +1,49 @@
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Persistence for one calendar. FileHandler keeps the CSV layout; JdbcCalendarStore keeps the
+// same three tables in an embedded database.
+public interface CalendarStore {
+
+    // --- Whole-list load/save ---
+    List<Event> loadEvents();
+    List<Recurrence> loadRecurrences();
+    List<AdditionalInfo> loadAdditional();
+
+    void saveEvents(List<Event> list);
+    void saveRecurrences(List<Recurrence> list);
+    void saveAdditional(List<AdditionalInfo> list);
+
+    // --- Backup & Restore (Unified File) ---
+    void backupData(String path, List<Event> ev, List<Recurrence> rec, List<AdditionalInfo> add);
+    void restoreData(String path);
+
+    // --- Range loading by start month ---
+    // A partition holds the events starting in one month together with their recurrence and
+    // detail rows, so opening a calendar reads only the index
+    boolean isPartitioned();
+    List<Event> loadEventPartition(YearMonth ym);
+    List<Recurrence> loadRecurrencePartition(YearMonth ym);
+    List<AdditionalInfo> loadAdditionalPartition(YearMonth ym);
+    void saveEventPartition(YearMonth ym, List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional);
+    PartitionIndex loadPartitionIndex();
+    void savePartitionIndex(PartitionIndex index);
+    void partitionEvents(List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional);
+
+    // One stored event by id without loading its partition, or null if there is none
+    Event findEvent(int id);
+
+    // --- Optional pushdown ---
+    // Stores that write single rows in place implement RowUpdatingStore as well
+
+    // Title/category/location search done by the store; null means "search in memory"
+    default List<Event> searchEvents(String query) { return null; }
+
+    // --- Optional live reload ---
+    // Stores whose data can be edited outside the app report those edits to 'onChange' from a
+    // background thread until stopWatching(); the others ignore this
+    default void watch(Consumer<StoreDelta> onChange) {}
+
+    default void stopWatching() {}
+}
@@ -1,32 +1,67 @@
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public class Event {
     private int id;
     private String title;
     private String description;
-    private LocalDateTime startDateTime;
+    // Instants as epoch seconds; the zone is where the event was planned, so repeats keep its wall-clock time
+    private long startEpoch;
+    private long endEpoch;
+    private ZoneConverter zone;
+    private LocalDateTime startDateTime; // wall-clock time in the event's own zone
     private LocalDateTime endDateTime;
 
     public static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     public Event(int id, String title, String description, LocalDateTime start, LocalDateTime end) {
+        this(id, title, description, start, end, ZoneId.systemDefault());
+    }
+
+    public Event(int id, String title, String description, LocalDateTime start, LocalDateTime end, ZoneId zone) {
+        this(id, title, description, ZoneConverter.of(zone).toEpochSecond(start), ZoneConverter.of(zone).toEpochSecond(end), zone);
+    }
+
+    public Event(int id, String title, String description, long startEpoch, long endEpoch, ZoneId zone) {
         this.id = id;
         this.title = title;
         this.description = description;
-        this.startDateTime = start;
-        this.endDateTime = end;
+        this.startEpoch = startEpoch;
+        this.endEpoch = endEpoch;
+        this.zone = ZoneConverter.of(zone);
+        this.startDateTime = this.zone.toLocalDateTime(startEpoch);
+        this.endDateTime = this.zone.toLocalDateTime(endEpoch);
     }
 
     public int getId() { return id; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
+    public long getStartEpochSecond() { return startEpoch; }
+    public long getEndEpochSecond() { return endEpoch; }
+    public long getDurationSeconds() { return endEpoch - startEpoch; }
+    public ZoneId getZone() { return zone.getZone(); }
+    public ZoneConverter getZoneConverter() { return zone; }
     public LocalDateTime getStartDateTime() { return startDateTime; }
     public LocalDateTime getEndDateTime() { return endDateTime; }
 
+    // Start of the repeat on 'date' (a date in the event's zone): same wall-clock time as the
+    // original, so a daily 09:00 stays at 09:00 local across DST changes
+    public long getOccurrenceStart(LocalDate date) {
+        if (date.equals(startDateTime.toLocalDate())) return startEpoch;
+        return zone.toEpochSecond(date, startDateTime.toLocalTime().toSecondOfDay());
+    }
+
+    // Wall-clock times as seen from another zone (display)
+    public LocalDateTime getStartDateTime(ZoneId displayZone) { return ZoneConverter.of(displayZone).toLocalDateTime(startEpoch); }
+    public LocalDateTime getEndDateTime(ZoneId displayZone) { return ZoneConverter.of(displayZone).toLocalDateTime(endEpoch); }
+
+    // Times are written as wall-clock in the event's zone, followed by the zone itself.
+    // Rows from before zones existed have 5 columns and are read in the system zone.
     public String toCSV() {
         return id + "," + title + "," + description + "," +
-                startDateTime.format(DATE_FMT) + "," + endDateTime.format(DATE_FMT);
+                startDateTime.format(DATE_FMT) + "," + endDateTime.format(DATE_FMT) + "," + zone.getZone().getId();
     }
 
     public static Event fromCSV(String csvLine) {
@@ -38,7 +73,8 @@ public class Event {
                     parts[1].trim(),
                     parts[2].trim(),
                     LocalDateTime.parse(parts[3].trim(), DATE_FMT),
-                    LocalDateTime.parse(parts[4].trim(), DATE_FMT)
+                    LocalDateTime.parse(parts[4].trim(), DATE_FMT),
+                    parts.length > 5 ? ZoneId.of(parts[5].trim()) : ZoneId.systemDefault()
             );
         } catch (Exception e) { return null; }
     }
@@ -47,4 +83,4 @@ public class Event {
     public String toString() {
         return String.format("%s (%s - %s)", title, startDateTime.toLocalTime(), endDateTime.toLocalTime());
     }
-}
\ No newline at end of file
+}
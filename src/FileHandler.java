@@ -1,57 +1,515 @@
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class FileHandler implements CalendarStore {
+    private static final CalendarMetrics METRICS = CalendarMetrics.METRICS;
 
-public class FileHandler {
     private static final String EVENT_FILE = "event.csv";
     private static final String RECUR_FILE = "recurrent.csv";
     private static final String ADD_FILE = "additional.csv";
 
+    // Optional month-partitioned layout: PARTITION_DIR/yyyy-MM.csv with the month's events,
+    // PARTITION_DIR/yyyy-MM.recurrent.csv and .additional.csv with their rows, PARTITION_DIR/index.csv
+    private static final String PARTITION_DIR = "events";
+    private static final String INDEX_FILE = PARTITION_DIR + "/index.csv";
+    private static final String EVENT_HEADER = "eventId, title, description, startDateTime, endDateTime, zone";
+    private static final String RECUR_HEADER = "eventId, recurrentInterval, recurrentTimes, recurrentEndDate";
+    private static final String ADD_HEADER = "eventId, location, category";
+
+    // Directory holding this calendar's three files (one shard per calendar)
+    private final File dir;
+
+    // Live reload: what we last read or wrote of each file. The CRC covers its bytes up to the end
+    // of the last whole line; a change that keeps those bytes is an append, any other change is
+    // re-read whole. Size and modification time tell our own saves apart without reading the file.
+    private static final long SETTLE_MS = 100; // Events closer together than this are one edit
+    private final Map<String, FileMark> marks = new HashMap<>(); // Guarded by itself
+    private volatile WatchService watcher;
+
+    private static class FileMark {
+        final long offset;
+        final long crc;
+        final long size;
+        final long lastModified;
+
+        FileMark(long offset, long crc, long size, long lastModified) {
+            this.offset = offset;
+            this.crc = crc;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    public FileHandler() {
+        this(new File("."));
+    }
+
+    public FileHandler(File dir) {
+        this.dir = dir;
+    }
+
+    public File getDirectory() { return dir; }
+
     // --- Generic Loaders ---
+    @Override
     public List<Event> loadEvents() {
         return loadList(EVENT_FILE, Event::fromCSV);
     }
+    @Override
     public List<Recurrence> loadRecurrences() {
         return loadList(RECUR_FILE, Recurrence::fromCSV);
     }
+    @Override
     public List<AdditionalInfo> loadAdditional() {
         return loadList(ADD_FILE, AdditionalInfo::fromCSV);
     }
 
     private <T> List<T> loadList(String filename, java.util.function.Function<String, T> mapper) {
         List<T> list = new ArrayList<>();
-        File file = new File(filename);
+        File file = new File(dir, filename);
         if (!file.exists()) return list;
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            br.readLine(); // Skip header
-            String line;
-            while ((line = br.readLine()) != null) {
+        long t0 = System.nanoTime();
+        // Rows appended while we read are read again as a tail later; replacing a row by itself is harmless
+        long modified = file.lastModified();
+        CRC32 crc = new CRC32();
+        boolean[] header = {true};
+        try (InputStream in = new FileInputStream(file)) {
+            long[] read = readLines(in, crc, true, line -> {
+                if (header[0]) {
+                    header[0] = false; // Skip header
+                    return;
+                }
                 T obj = mapper.apply(line);
                 if (obj != null) list.add(obj);
-            }
+            });
+            setMark(filename, new FileMark(read[0], crc.getValue(), read[1], modified));
+            METRICS.loadBytes.add(read[1]);
         } catch (IOException e) { e.printStackTrace(); }
+        METRICS.load.record(System.nanoTime() - t0);
         return list;
     }
 
+    // Feeds each line of 'in' to 'onLine'. An unfinished last line counts as a line only if
+    // 'unfinished' is set. 'crc' takes exactly the bytes of the lines fed. Returns {those bytes, all bytes read}.
+    private static long[] readLines(InputStream in, CRC32 crc, boolean unfinished, Consumer<String> onLine) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        ByteArrayOutputStream carry = new ByteArrayOutputStream(); // Start of a line split across reads
+        long whole = 0;
+        long total = 0;
+        int n;
+        while ((n = in.read(buf)) > 0) {
+            total += n;
+            int start = 0;
+            for (int i = 0; i < n; i++) {
+                if (buf[i] != '\n') continue;
+                if (carry.size() > 0) {
+                    carry.write(buf, start, i + 1 - start);
+                    byte[] line = carry.toByteArray();
+                    carry.reset();
+                    crc.update(line);
+                    whole += line.length;
+                    onLine.accept(decode(line, 0, line.length - 1));
+                } else {
+                    crc.update(buf, start, i + 1 - start);
+                    whole += i + 1 - start;
+                    onLine.accept(decode(buf, start, i - start));
+                }
+                start = i + 1;
+            }
+            carry.write(buf, start, n - start);
+        }
+        if (unfinished && carry.size() > 0) {
+            byte[] line = carry.toByteArray();
+            crc.update(line);
+            whole += line.length;
+            onLine.accept(decode(line, 0, line.length));
+        }
+        return new long[] {whole, total};
+    }
+
+    private static String decode(byte[] bytes, int from, int length) {
+        if (length > 0 && bytes[from + length - 1] == '\r') length--;
+        return new String(bytes, from, length, Charset.defaultCharset());
+    }
+
     // --- Generic Savers ---
+    @Override
     public void saveEvents(List<Event> list) {
-        saveList(EVENT_FILE, "eventId, title, description, startDateTime, endDateTime", list, Event::toCSV);
+        saveList(EVENT_FILE, EVENT_HEADER, list, Event::toCSV);
     }
+    @Override
     public void saveRecurrences(List<Recurrence> list) {
-        saveList(RECUR_FILE, "eventId, recurrentInterval, recurrentTimes, recurrentEndDate", list, Recurrence::toCSV);
+        saveList(RECUR_FILE, RECUR_HEADER, list, Recurrence::toCSV);
     }
+    @Override
     public void saveAdditional(List<AdditionalInfo> list) {
-        saveList(ADD_FILE, "eventId, location, category", list, AdditionalInfo::toCSV);
+        saveList(ADD_FILE, ADD_HEADER, list, AdditionalInfo::toCSV);
     }
 
     private <T> void saveList(String filename, String header, List<T> list, java.util.function.Function<T, String> mapper) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
-            pw.println(header);
-            for (T item : list) pw.println(mapper.apply(item));
-        } catch (IOException e) { e.printStackTrace(); }
+        dir.mkdirs();
+        File file = new File(dir, filename);
+        long t0 = System.nanoTime();
+        // The watcher waits for the mark, so it never takes our own save for an outside edit
+        synchronized (marks) {
+            byte[] unread = unreadAppend(filename, file);
+            CRC32 crc = new CRC32();
+            try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new CheckedOutputStream(new FileOutputStream(file), crc)))) {
+                pw.println(header);
+                for (T item : list) pw.println(mapper.apply(item));
+            } catch (IOException e) { e.printStackTrace(); }
+            long size = file.length();
+            setMark(filename, new FileMark(size, crc.getValue(), size, file.lastModified()));
+            // Kept after our rows, past the mark, so the watcher still reads it as an append
+            if (unread != null) {
+                try (OutputStream out = new FileOutputStream(file, true)) {
+                    out.write(unread);
+                } catch (IOException e) { e.printStackTrace(); }
+            }
+        }
+        METRICS.save.record(System.nanoTime() - t0);
+        METRICS.saveBytes.add(file.length());
+    }
+
+    // --- Live Reload ---
+    // Watches the three flat files for edits made outside the app (scripts appending rows, a text
+    // editor saving). Appended rows are parsed from the marked offset on; any other change re-reads
+    // the file whole. Month-partitioned calendars are not watched; -Dcalendar.watch=false turns it off.
+    @Override
+    public void watch(Consumer<StoreDelta> onChange) {
+        if (watcher != null || isPartitioned()) return;
+        if (!Boolean.parseBoolean(System.getProperty("calendar.watch", "true"))) return;
+        try {
+            dir.mkdirs();
+            WatchService ws = FileSystems.getDefault().newWatchService();
+            dir.toPath().register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watcher = ws;
+        } catch (IOException e) {
+            System.out.println("File Watch Error: " + e.getMessage());
+            return;
+        }
+        Thread t = new Thread(() -> watchLoop(watcher, onChange), "calendar-file-watch");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    @Override
+    public void stopWatching() {
+        WatchService ws = watcher;
+        watcher = null;
+        if (ws != null) {
+            try { ws.close(); } catch (IOException e) { e.printStackTrace(); }
+        }
+    }
+
+    private void watchLoop(WatchService ws, Consumer<StoreDelta> onChange) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                // Collect until the files have been quiet for a moment, so a rewrite is seen finished
+                Set<String> changed = new HashSet<>();
+                do {
+                    for (WatchEvent<?> ev : key.pollEvents()) {
+                        if (ev.kind() == StandardWatchEventKinds.OVERFLOW) changed.addAll(List.of(EVENT_FILE, RECUR_FILE, ADD_FILE));
+                        else changed.add(ev.context().toString());
+                    }
+                    key.reset();
+                } while ((key = ws.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null);
+
+                if (isPartitioned()) continue;
+                // Events first, so appended recurrence/detail rows find their event
+                for (String name : List.of(EVENT_FILE, RECUR_FILE, ADD_FILE)) {
+                    if (!changed.contains(name)) continue;
+                    StoreDelta delta = readChanges(name);
+                    if (delta != null) onChange.accept(delta);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopWatching()
+        } catch (RuntimeException e) {
+            System.out.println("File Watch Error: " + e.getMessage());
+        }
+    }
+
+    // What changed in one file since its mark, or null if nothing did (our own save, a touch,
+    // or an appended line that is not finished yet)
+    private StoreDelta readChanges(String name) {
+        File file = new File(dir, name);
+        synchronized (marks) {
+            if (!file.exists()) return null;
+            FileMark mark = marks.get(name);
+            if (mark != null && file.length() == mark.size && file.lastModified() == mark.lastModified) return null;
+            if (mark != null && file.length() >= mark.offset) {
+                List<String> lines = readAppendedLines(name, file, mark);
+                if (lines != null) return lines.isEmpty() ? null : delta(name, lines, false);
+            }
+            return delta(name, loadList(name, line -> line), true);
+        }
+    }
+
+    // Whole lines after the mark, or null if the bytes before it changed. The mark moves past the
+    // last whole line, its CRC carried on over the appended bytes.
+    private List<String> readAppendedLines(String name, File file, FileMark mark) {
+        long modified = file.lastModified();
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = new FileInputStream(file)) {
+            CRC32 crc = new CRC32();
+            if (!readPrefix(in, mark.offset, crc) || crc.getValue() != mark.crc) return null;
+            long[] read = readLines(in, crc, false, line -> {
+                if (!line.isBlank()) lines.add(line);
+            });
+            setMark(name, new FileMark(mark.offset + read[0], crc.getValue(), mark.offset + read[1], modified));
+        } catch (IOException e) {
+            System.out.println("File Watch Error: " + e.getMessage());
+            return null;
+        }
+        return lines;
+    }
+
+    // Bytes an outside writer appended after the mark that the watcher has not taken yet (a line
+    // still being written, or one written after the last event), or null if there are none
+    private byte[] unreadAppend(String name, File file) {
+        FileMark mark = marks.get(name);
+        if (mark == null || watcher == null || !file.exists()) return null;
+        if (file.length() <= mark.offset) return null; // Our own saves end at their mark
+        try (InputStream in = new FileInputStream(file)) {
+            CRC32 crc = new CRC32();
+            if (!readPrefix(in, mark.offset, crc) || crc.getValue() != mark.crc) return null; // Rewritten outside: our save wins
+            return in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Feeds the first 'length' bytes of 'in' to 'crc'; false if there are fewer
+    private static boolean readPrefix(InputStream in, long length, CRC32 crc) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        for (long left = length; left > 0; ) {
+            int n = in.read(buf, 0, (int) Math.min(buf.length, left));
+            if (n < 0) return false;
+            crc.update(buf, 0, n);
+            left -= n;
+        }
+        return true;
+    }
+
+    private static StoreDelta delta(String name, List<String> lines, boolean complete) {
+        switch (name) {
+            case EVENT_FILE: return StoreDelta.ofEvents(parse(lines, Event::fromCSV), complete);
+            case RECUR_FILE: return StoreDelta.ofRecurrences(parse(lines, Recurrence::fromCSV), complete);
+            default: return StoreDelta.ofAdditional(parse(lines, AdditionalInfo::fromCSV), complete);
+        }
+    }
+
+    // Lines a person typed may be malformed; those are skipped like unreadable rows on load
+    private static <T> List<T> parse(List<String> lines, java.util.function.Function<String, T> mapper) {
+        List<T> rows = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                T row = mapper.apply(line);
+                if (row != null) rows.add(row);
+            } catch (RuntimeException e) {
+                System.out.println("File Watch Error: Skipped line: " + line);
+            }
+        }
+        return rows;
+    }
+
+    private void setMark(String name, FileMark mark) {
+        synchronized (marks) {
+            marks.put(name, mark);
+        }
+    }
+
+    // --- Month-Partitioned Event Storage ---
+    @Override
+    public boolean isPartitioned() {
+        return new File(dir, PARTITION_DIR).isDirectory();
+    }
+
+    @Override
+    public List<Event> loadEventPartition(YearMonth ym) {
+        return loadList(partitionFile(ym, ""), Event::fromCSV);
+    }
+
+    @Override
+    public List<Recurrence> loadRecurrencePartition(YearMonth ym) {
+        return loadList(partitionFile(ym, ".recurrent"), Recurrence::fromCSV);
+    }
+
+    @Override
+    public List<AdditionalInfo> loadAdditionalPartition(YearMonth ym) {
+        return loadList(partitionFile(ym, ".additional"), AdditionalInfo::fromCSV);
+    }
+
+    @Override
+    public void saveEventPartition(YearMonth ym, List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional) {
+        new File(dir, PARTITION_DIR).mkdirs();
+        savePartitionFile(partitionFile(ym, ""), EVENT_HEADER, events, Event::toCSV);
+        savePartitionFile(partitionFile(ym, ".recurrent"), RECUR_HEADER, recurrences, Recurrence::toCSV);
+        savePartitionFile(partitionFile(ym, ".additional"), ADD_HEADER, additional, AdditionalInfo::toCSV);
+    }
+
+    // An empty partition file is removed rather than kept with just a header
+    private <T> void savePartitionFile(String filename, String header, List<T> list, java.util.function.Function<T, String> mapper) {
+        if (list.isEmpty()) new File(dir, filename).delete();
+        else saveList(filename, header, list, mapper);
+    }
+
+    @Override
+    public PartitionIndex loadPartitionIndex() {
+        splitFlatDetails();
+        PartitionIndex index = PartitionIndex.fromCSV(loadList(INDEX_FILE, line -> line));
+        if (PartitionIndex.OLD_HEADER.equals(readHeader(INDEX_FILE))) {
+            // Written before single events running into a later month had series rows: add them once
+            for (YearMonth ym : index.getMonths()) {
+                Set<Integer> recurring = new HashSet<>();
+                for (Recurrence r : loadRecurrencePartition(ym)) recurring.add(r.getEventId());
+                for (Event e : loadEventPartition(ym)) {
+                    if (!recurring.contains(e.getId())) index.setSeries(e, null);
+                }
+            }
+            savePartitionIndex(index);
+        }
+        return index;
+    }
+
+    private String readHeader(String filename) {
+        File file = new File(dir, filename);
+        if (!file.exists()) return null;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            return br.readLine();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public void savePartitionIndex(PartitionIndex index) {
+        new File(dir, PARTITION_DIR).mkdirs();
+        saveList(INDEX_FILE, PartitionIndex.HEADER, index.toCSV(), line -> line);
+    }
+
+    // Scans only the partitions whose highest id reaches 'id', and parses only the matching line
+    @Override
+    public Event findEvent(int id) {
+        String prefix = id + ",";
+        for (YearMonth ym : PartitionIndex.fromCSV(loadList(INDEX_FILE, line -> line)).monthsWithId(id)) {
+            File file = new File(dir, partitionFile(ym, ""));
+            if (!file.exists()) continue;
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.startsWith(prefix)) return Event.fromCSV(line);
+                }
+            } catch (IOException e) { e.printStackTrace(); }
+        }
+        return null;
+    }
+
+    // Rewrites every event, with its recurrence and detail rows, into its start month's partition
+    // and builds the index. The flat files are renamed rather than deleted so the old layout can be recovered.
+    @Override
+    public void partitionEvents(List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional) {
+        File partitionDir = new File(dir, PARTITION_DIR);
+        File[] old = partitionDir.listFiles();
+        if (old != null) for (File f : old) f.delete();
+
+        Map<Integer, Event> byId = new HashMap<>();
+        Map<YearMonth, List<Event>> byMonth = new TreeMap<>();
+        for (Event e : events) {
+            byId.putIfAbsent(e.getId(), e);
+            byMonth.computeIfAbsent(YearMonth.from(e.getStartDateTime()), k -> new ArrayList<>()).add(e);
+        }
+        Map<YearMonth, List<Recurrence>> recByMonth = groupByMonth(recurrences, Recurrence::getEventId, byId);
+        Map<YearMonth, List<AdditionalInfo>> addByMonth = groupByMonth(additional, AdditionalInfo::getEventId, byId);
+
+        PartitionIndex index = new PartitionIndex();
+        for (Map.Entry<YearMonth, List<Event>> m : byMonth.entrySet()) {
+            YearMonth ym = m.getKey();
+            saveEventPartition(ym, m.getValue(), recByMonth.getOrDefault(ym, List.of()), addByMonth.getOrDefault(ym, List.of()));
+            index.setMonth(ym, m.getValue());
+        }
+        Map<Integer, Recurrence> recById = new HashMap<>();
+        for (Recurrence r : recurrences) recById.putIfAbsent(r.getEventId(), r);
+        for (Event e : byId.values()) index.setSeries(e, recById.get(e.getId()));
+        savePartitionIndex(index);
+
+        for (String name : List.of(EVENT_FILE, RECUR_FILE, ADD_FILE)) {
+            File flat = new File(dir, name);
+            if (flat.exists()) flat.renameTo(new File(dir, name + ".bak"));
+        }
+    }
+
+    // Rows of events that are not there have no month and are left out
+    private static <T> Map<YearMonth, List<T>> groupByMonth(List<T> rows, java.util.function.ToIntFunction<T> idOf, Map<Integer, Event> byId) {
+        Map<YearMonth, List<T>> byMonth = new HashMap<>();
+        for (T row : rows) {
+            Event e = byId.get(idOf.applyAsInt(row));
+            if (e != null) byMonth.computeIfAbsent(YearMonth.from(e.getStartDateTime()), k -> new ArrayList<>()).add(row);
+        }
+        return byMonth;
+    }
+
+    // Calendars partitioned while recurrence and detail rows stayed in the flat files: those rows
+    // are moved into their event's partition once, on the first load
+    private void splitFlatDetails() {
+        File recFile = new File(dir, RECUR_FILE);
+        File addFile = new File(dir, ADD_FILE);
+        if (!recFile.exists() && !addFile.exists()) return;
+
+        Map<Integer, Event> byId = new HashMap<>();
+        for (YearMonth ym : PartitionIndex.fromCSV(loadList(INDEX_FILE, line -> line)).getMonths()) {
+            for (Event e : loadEventPartition(ym)) byId.putIfAbsent(e.getId(), e);
+        }
+        Map<YearMonth, List<Recurrence>> recByMonth = groupByMonth(loadRecurrences(), Recurrence::getEventId, byId);
+        Map<YearMonth, List<AdditionalInfo>> addByMonth = groupByMonth(loadAdditional(), AdditionalInfo::getEventId, byId);
+        for (Map.Entry<YearMonth, List<Recurrence>> m : recByMonth.entrySet()) {
+            saveList(partitionFile(m.getKey(), ".recurrent"), RECUR_HEADER, m.getValue(), Recurrence::toCSV);
+        }
+        for (Map.Entry<YearMonth, List<AdditionalInfo>> m : addByMonth.entrySet()) {
+            saveList(partitionFile(m.getKey(), ".additional"), ADD_HEADER, m.getValue(), AdditionalInfo::toCSV);
+        }
+        if (recFile.exists()) recFile.renameTo(new File(dir, RECUR_FILE + ".bak"));
+        if (addFile.exists()) addFile.renameTo(new File(dir, ADD_FILE + ".bak"));
+    }
+
+    private static String partitionFile(YearMonth ym, String kind) {
+        return PARTITION_DIR + "/" + ym + kind + ".csv";
     }
 
     // --- Backup & Restore (Unified File) ---
+    @Override
     public void backupData(String path, List<Event> ev, List<Recurrence> rec, List<AdditionalInfo> add) {
+        writeBackup(path, ev, rec, add);
+    }
+
+    @Override
+    public void restoreData(String path) {
+        List<Event> ev = new ArrayList<>();
+        List<Recurrence> rec = new ArrayList<>();
+        List<AdditionalInfo> add = new ArrayList<>();
+        if (!readBackup(path, ev, rec, add)) return;
+
+        if (isPartitioned()) {
+            partitionEvents(ev, rec, add);
+            return;
+        }
+        saveEvents(ev);
+        saveRecurrences(rec);
+        saveAdditional(add);
+    }
+
+    // The backup format is shared by every CalendarStore
+    public static void writeBackup(String path, List<Event> ev, List<Recurrence> rec, List<AdditionalInfo> add) {
         try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
             pw.println("###EVENTS###");
             for (Event e : ev) pw.println(e.toCSV());
@@ -65,11 +523,8 @@ public class FileHandler {
         } catch (IOException e) { System.out.println("Backup Error: " + e.getMessage()); }
     }
 
-    public void restoreData(String path) {
-        List<Event> ev = new ArrayList<>();
-        List<Recurrence> rec = new ArrayList<>();
-        List<AdditionalInfo> add = new ArrayList<>();
-
+    // Fills the three lists from a backup file; returns false if it could not be read
+    public static boolean readBackup(String path, List<Event> ev, List<Recurrence> rec, List<AdditionalInfo> add) {
         try (BufferedReader br = new BufferedReader(new FileReader(path))) {
             String line;
             String mode = "";
@@ -88,9 +543,10 @@ public class FileHandler {
                     if(a!=null) add.add(a);
                 }
             }
-            saveEvents(ev);
-            saveRecurrences(rec);
-            saveAdditional(add);
-        } catch (IOException e) { System.out.println("Restore Error: " + e.getMessage()); }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Restore Error: " + e.getMessage());
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
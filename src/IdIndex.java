@@ -0,0 +1,120 @@
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+// Immutable map from event id to one row, iterated in id order. Ids are grouped in blocks of
+// 1024 consecutive ids; changing one id copies only its block and the (small) block map, so a
+// write on a million-row calendar copies a few thousand references instead of every row.
+final class IdIndex<V> {
+    private static final int SHIFT = 10;
+    private static final int BLOCK = 1 << SHIFT;
+
+    private static final IdIndex<?> EMPTY = new IdIndex<>(new TreeMap<>(), 0);
+
+    private final TreeMap<Integer, Object[]> blocks; // id >> SHIFT -> slots, never modified once published
+    private final int size;
+
+    private IdIndex(TreeMap<Integer, Object[]> blocks, int size) {
+        this.blocks = blocks;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> IdIndex<V> empty() { return (IdIndex<V>) EMPTY; }
+
+    // The first row for each id wins, like compact() keeps it
+    static <V> IdIndex<V> of(Iterable<V> rows, ToIntFunction<V> idOf) {
+        TreeMap<Integer, Object[]> blocks = new TreeMap<>();
+        int size = 0;
+        for (V row : rows) {
+            int id = idOf.applyAsInt(row);
+            Object[] slots = blocks.computeIfAbsent(id >> SHIFT, k -> new Object[BLOCK]);
+            if (slots[id & (BLOCK - 1)] == null) {
+                slots[id & (BLOCK - 1)] = row;
+                size++;
+            }
+        }
+        return new IdIndex<>(blocks, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int id) {
+        Object[] slots = blocks.get(id >> SHIFT);
+        return slots == null ? null : (V) slots[id & (BLOCK - 1)];
+    }
+
+    boolean containsKey(int id) { return get(id) != null; }
+
+    int size() { return size; }
+
+    // Highest id held, 0 when empty
+    int maxId() {
+        for (Map.Entry<Integer, Object[]> b : blocks.descendingMap().entrySet()) {
+            Object[] slots = b.getValue();
+            for (int i = BLOCK - 1; i >= 0; i--) {
+                if (slots[i] != null) return (b.getKey() << SHIFT) | i;
+            }
+        }
+        return 0;
+    }
+
+    // Copy with 'id' mapped to 'row', or without it when 'row' is null
+    IdIndex<V> with(int id, V row) {
+        Object[] old = blocks.get(id >> SHIFT);
+        Object prev = old == null ? null : old[id & (BLOCK - 1)];
+        if (prev == row) return this;
+
+        Object[] slots = old == null ? new Object[BLOCK] : old.clone();
+        slots[id & (BLOCK - 1)] = row;
+        TreeMap<Integer, Object[]> copy = new TreeMap<>(blocks);
+        if (row == null && isEmpty(slots)) copy.remove(id >> SHIFT);
+        else copy.put(id >> SHIFT, slots);
+        return new IdIndex<>(copy, size + (prev == null ? 1 : 0) - (row == null ? 1 : 0));
+    }
+
+    private static boolean isEmpty(Object[] slots) {
+        for (Object o : slots) if (o != null) return false;
+        return true;
+    }
+
+    // Read-only view of the rows in id order
+    Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public int size() { return size; }
+
+            @Override
+            public Iterator<V> iterator() {
+                Iterator<Object[]> it = blocks.values().iterator();
+                return new Iterator<V>() {
+                    private Object[] slots = new Object[0];
+                    private int i;
+                    private Object next = advance();
+
+                    private Object advance() {
+                        while (true) {
+                            while (i < slots.length) {
+                                Object o = slots[i++];
+                                if (o != null) return o;
+                            }
+                            if (!it.hasNext()) return null;
+                            slots = it.next();
+                            i = 0;
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() { return next != null; }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next() {
+                        if (next == null) throw new NoSuchElementException();
+                        V v = (V) next;
+                        next = advance();
+                        return v;
+                    }
+                };
+            }
+        };
+    }
+}
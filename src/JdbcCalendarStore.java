@@ -0,0 +1,424 @@
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// CalendarStore backed by an embedded, in-process database (H2 or SQLite; the driver jar only
+// has to be on the classpath). Times are stored as ISO-8601 text, which sorts chronologically,
+// so month loads are plain range scans on the start_time index. start_time/end_time are wall-clock
+// in the event's zone (which is what partitions are keyed on); the instants themselves are the
+// start_epoch/end_epoch columns (epoch seconds) and the zone column.
+public class JdbcCalendarStore implements RowUpdatingStore {
+    private static final String EVENT_COLUMNS = "id, title, description, start_time, end_time, start_epoch, end_epoch, zone";
+    private static final String E_EVENT_COLUMNS = "e.id, e.title, e.description, e.start_time, e.end_time, e.start_epoch, e.end_epoch, e.zone";
+
+    private final String url;
+    private Connection conn;
+
+    public JdbcCalendarStore(String url) throws SQLException {
+        this.url = url;
+        this.conn = DriverManager.getConnection(url);
+        createSchema();
+    }
+
+    public String getUrl() { return url; }
+
+    private void createSchema() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS events (id INT PRIMARY KEY, title VARCHAR(255), "
+                    + "description VARCHAR(1024), start_time VARCHAR(32), end_time VARCHAR(32), "
+                    + "start_epoch BIGINT, end_epoch BIGINT, zone VARCHAR(64))");
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS recurrences (event_id INT PRIMARY KEY, "
+                    + "recur_interval VARCHAR(128), recur_times INT, recur_end VARCHAR(16), recur_exdates VARCHAR(4096))");
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS additional_info (event_id INT PRIMARY KEY, "
+                    + "location VARCHAR(255), category VARCHAR(255))");
+            // Databases created before excluded dates / time zones were supported
+            addColumn(st, "recurrences", "recur_exdates VARCHAR(4096)");
+            addColumn(st, "events", "start_epoch BIGINT");
+            addColumn(st, "events", "end_epoch BIGINT");
+            addColumn(st, "events", "zone VARCHAR(64)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_events_start ON events(start_time)");
+            // Search matches anywhere in the text, which these could not serve
+            st.executeUpdate("DROP INDEX IF EXISTS idx_additional_category");
+            st.executeUpdate("DROP INDEX IF EXISTS idx_additional_location");
+        }
+    }
+
+    private static void addColumn(Statement st, String table, String column) {
+        try {
+            st.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column);
+        } catch (SQLException alreadyThere) { /* column exists */ }
+    }
+
+    // --- Whole-list load/save ---
+    @Override
+    public synchronized List<Event> loadEvents() {
+        return queryEvents("SELECT " + EVENT_COLUMNS + " FROM events ORDER BY id");
+    }
+
+    @Override
+    public synchronized List<Recurrence> loadRecurrences() {
+        List<Recurrence> list = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT event_id, recur_interval, recur_times, recur_end, recur_exdates FROM recurrences ORDER BY event_id")) {
+            while (rs.next()) list.add(readRecurrence(rs, 1));
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    @Override
+    public synchronized List<AdditionalInfo> loadAdditional() {
+        List<AdditionalInfo> list = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT event_id, location, category FROM additional_info ORDER BY event_id")) {
+            while (rs.next()) list.add(new AdditionalInfo(rs.getInt(1), rs.getString(2), rs.getString(3)));
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    @Override
+    public synchronized void saveEvents(List<Event> list) {
+        inTransaction(() -> {
+            execute("DELETE FROM events");
+            insertEvents(list);
+        });
+    }
+
+    @Override
+    public synchronized void saveRecurrences(List<Recurrence> list) {
+        inTransaction(() -> {
+            execute("DELETE FROM recurrences");
+            insertRecurrences(list);
+        });
+    }
+
+    @Override
+    public synchronized void saveAdditional(List<AdditionalInfo> list) {
+        inTransaction(() -> {
+            execute("DELETE FROM additional_info");
+            insertAdditional(list);
+        });
+    }
+
+    // --- Backup & Restore (Unified File) ---
+    @Override
+    public void backupData(String path, List<Event> ev, List<Recurrence> rec, List<AdditionalInfo> add) {
+        FileHandler.writeBackup(path, ev, rec, add);
+    }
+
+    @Override
+    public synchronized void restoreData(String path) {
+        List<Event> ev = new ArrayList<>();
+        List<Recurrence> rec = new ArrayList<>();
+        List<AdditionalInfo> add = new ArrayList<>();
+        if (!FileHandler.readBackup(path, ev, rec, add)) return;
+
+        saveEvents(ev);
+        saveRecurrences(rec);
+        saveAdditional(add);
+    }
+
+    // --- Range loading by start month ---
+    // Every row is reachable through the start_time index, so the store is always "partitioned"
+    @Override
+    public boolean isPartitioned() { return true; }
+
+    @Override
+    public synchronized List<Event> loadEventPartition(YearMonth ym) {
+        List<Event> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT " + EVENT_COLUMNS + " FROM events WHERE start_time >= ? AND start_time < ? ORDER BY id")) {
+            ps.setString(1, monthStart(ym));
+            ps.setString(2, monthStart(ym.plusMonths(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(readEvent(rs, 1));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null; // Search in memory instead
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized List<Recurrence> loadRecurrencePartition(YearMonth ym) {
+        List<Recurrence> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT r.event_id, r.recur_interval, r.recur_times, r.recur_end, r.recur_exdates FROM recurrences r "
+                        + "JOIN events e ON e.id = r.event_id WHERE e.start_time >= ? AND e.start_time < ? ORDER BY r.event_id")) {
+            ps.setString(1, monthStart(ym));
+            ps.setString(2, monthStart(ym.plusMonths(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(readRecurrence(rs, 1));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    @Override
+    public synchronized List<AdditionalInfo> loadAdditionalPartition(YearMonth ym) {
+        List<AdditionalInfo> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT a.event_id, a.location, a.category FROM additional_info a "
+                        + "JOIN events e ON e.id = a.event_id WHERE e.start_time >= ? AND e.start_time < ? ORDER BY a.event_id")) {
+            ps.setString(1, monthStart(ym));
+            ps.setString(2, monthStart(ym.plusMonths(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(new AdditionalInfo(rs.getInt(1), rs.getString(2), rs.getString(3)));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    @Override
+    public synchronized void saveEventPartition(YearMonth ym, List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional) {
+        inTransaction(() -> {
+            // Rows of the month's current events go first, then the events themselves
+            for (String sql : new String[]{
+                    "DELETE FROM recurrences WHERE event_id IN (SELECT id FROM events WHERE start_time >= ? AND start_time < ?)",
+                    "DELETE FROM additional_info WHERE event_id IN (SELECT id FROM events WHERE start_time >= ? AND start_time < ?)",
+                    "DELETE FROM events WHERE start_time >= ? AND start_time < ?"}) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, monthStart(ym));
+                    ps.setString(2, monthStart(ym.plusMonths(1)));
+                    ps.executeUpdate();
+                }
+            }
+            insertEvents(events);
+            insertRecurrences(recurrences);
+            insertAdditional(additional);
+        });
+    }
+
+    // Built from the tables on demand instead of being stored
+    @Override
+    public synchronized PartitionIndex loadPartitionIndex() {
+        PartitionIndex index = new PartitionIndex();
+        try (Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT SUBSTR(start_time, 1, 7), COUNT(*), MAX(id) FROM events GROUP BY SUBSTR(start_time, 1, 7)")) {
+                while (rs.next()) index.setMonth(YearMonth.parse(rs.getString(1)), rs.getInt(2), rs.getInt(3));
+            }
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT " + E_EVENT_COLUMNS + ", "
+                            + "r.event_id, r.recur_interval, r.recur_times, r.recur_end, r.recur_exdates "
+                            + "FROM recurrences r JOIN events e ON e.id = r.event_id")) {
+                while (rs.next()) index.setSeries(readEvent(rs, 1), readRecurrence(rs, 9));
+            }
+            // Single events running into a later month
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT " + E_EVENT_COLUMNS + " FROM events e "
+                            + "WHERE SUBSTR(e.end_time, 1, 7) > SUBSTR(e.start_time, 1, 7) "
+                            + "AND NOT EXISTS (SELECT 1 FROM recurrences r WHERE r.event_id = e.id)")) {
+                while (rs.next()) index.setSeries(readEvent(rs, 1), null);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return index;
+    }
+
+    @Override
+    public void savePartitionIndex(PartitionIndex index) { /* Derived from the tables */ }
+
+    @Override
+    public void partitionEvents(List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional) {
+        saveEvents(events);
+        saveRecurrences(recurrences);
+        saveAdditional(additional);
+    }
+
+    @Override
+    public synchronized Event findEvent(int id) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT " + EVENT_COLUMNS + " FROM events WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? readEvent(rs, 1) : null;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // --- Pushdown ---
+    @Override
+    public synchronized void saveEventRows(Event e, Recurrence rec, AdditionalInfo add) {
+        inTransaction(() -> {
+            deleteRows(e.getId());
+            insertEvents(List.of(e));
+            if (rec != null) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO recurrences (event_id, recur_interval, recur_times, recur_end, recur_exdates) VALUES (?, ?, ?, ?, ?)")) {
+                    bindRecurrence(ps, rec);
+                    ps.executeUpdate();
+                }
+            }
+            if (add != null) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO additional_info (event_id, location, category) VALUES (?, ?, ?)")) {
+                    bindAdditional(ps, add);
+                    ps.executeUpdate();
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void deleteEventRows(int eventId) {
+        inTransaction(() -> deleteRows(eventId));
+    }
+
+    // One scan over the joined tables (a match anywhere in the text cannot use an index), which
+    // still spares loading every partition into memory
+    @Override
+    public synchronized List<Event> searchEvents(String query) {
+        String pattern = "%" + query.toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<Event> list = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT " + E_EVENT_COLUMNS + " "
+                        + "FROM events e LEFT JOIN additional_info a ON a.event_id = e.id "
+                        + "WHERE LOWER(e.title) LIKE ? ESCAPE '\\' OR LOWER(a.category) LIKE ? ESCAPE '\\' "
+                        + "OR LOWER(a.location) LIKE ? ESCAPE '\\' ORDER BY e.id")) {
+            for (int i = 1; i <= 3; i++) ps.setString(i, pattern);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(readEvent(rs, 1));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    // --- Helpers ---
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    private void inTransaction(SqlWork work) {
+        try {
+            conn.setAutoCommit(false);
+            try {
+                work.run();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate(sql);
+        }
+    }
+
+    private void deleteRows(int eventId) throws SQLException {
+        for (String sql : new String[]{
+                "DELETE FROM events WHERE id = ?",
+                "DELETE FROM recurrences WHERE event_id = ?",
+                "DELETE FROM additional_info WHERE event_id = ?"}) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, eventId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private void insertEvents(List<Event> list) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO events (" + EVENT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (Event e : list) {
+                ps.setInt(1, e.getId());
+                ps.setString(2, e.getTitle());
+                ps.setString(3, e.getDescription());
+                ps.setString(4, e.getStartDateTime().format(Event.DATE_FMT));
+                ps.setString(5, e.getEndDateTime().format(Event.DATE_FMT));
+                ps.setLong(6, e.getStartEpochSecond());
+                ps.setLong(7, e.getEndEpochSecond());
+                ps.setString(8, e.getZone().getId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertRecurrences(List<Recurrence> list) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO recurrences (event_id, recur_interval, recur_times, recur_end, recur_exdates) VALUES (?, ?, ?, ?, ?)")) {
+            for (Recurrence r : list) {
+                bindRecurrence(ps, r);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertAdditional(List<AdditionalInfo> list) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO additional_info (event_id, location, category) VALUES (?, ?, ?)")) {
+            for (AdditionalInfo a : list) {
+                bindAdditional(ps, a);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private List<Event> queryEvents(String sql) {
+        List<Event> list = new ArrayList<>();
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) list.add(readEvent(rs, 1));
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    private static Event readEvent(ResultSet rs, int col) throws SQLException {
+        String zone = rs.getString(col + 7);
+        if (zone == null) {
+            // Row written before time zones: wall-clock text in the system zone
+            return new Event(
+                    rs.getInt(col),
+                    rs.getString(col + 1),
+                    rs.getString(col + 2),
+                    LocalDateTime.parse(rs.getString(col + 3), Event.DATE_FMT),
+                    LocalDateTime.parse(rs.getString(col + 4), Event.DATE_FMT)
+            );
+        }
+        return new Event(
+                rs.getInt(col),
+                rs.getString(col + 1),
+                rs.getString(col + 2),
+                rs.getLong(col + 5),
+                rs.getLong(col + 6),
+                ZoneId.of(zone)
+        );
+    }
+
+    private static Recurrence readRecurrence(ResultSet rs, int col) throws SQLException {
+        String end = rs.getString(col + 3);
+        return new Recurrence(rs.getInt(col), rs.getString(col + 1), rs.getInt(col + 2),
+                end == null ? null : LocalDate.parse(end), Recurrence.parseDates(rs.getString(col + 4)));
+    }
+
+    private static void bindRecurrence(PreparedStatement ps, Recurrence r) throws SQLException {
+        ps.setInt(1, r.getEventId());
+        ps.setString(2, r.getInterval());
+        ps.setInt(3, r.getTimes());
+        ps.setString(4, r.getEndDate() == null ? null : r.getEndDate().toString());
+        ps.setString(5, r.getExcludedDates().isEmpty() ? null : Recurrence.joinDates(r.getExcludedDates()));
+    }
+
+    private static void bindAdditional(PreparedStatement ps, AdditionalInfo a) throws SQLException {
+        ps.setInt(1, a.getEventId());
+        ps.setString(2, a.getLocation());
+        ps.setString(3, a.getCategory());
+    }
+
+    private static String monthStart(YearMonth ym) {
+        return ym.atDay(1).atStartOfDay().format(Event.DATE_FMT);
+    }
+}
@@ -0,0 +1,40 @@
+// Minimal JSON output for the headless tools (the app has no JSON library)
+public class Json {
+    private Json() {}
+
+    public static String quote(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // {"k1":v1,"k2":v2,...} from alternating keys and values. Numbers and booleans are written
+    // as-is, null as null, anything else as its quoted toString().
+    public static String object(Object... keyValues) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(quote(String.valueOf(keyValues[i]))).append(':').append(value(keyValues[i + 1]));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String value(Object v) {
+        if (v == null) return "null";
+        if (v instanceof Number || v instanceof Boolean) return v.toString();
+        return quote(v.toString());
+    }
+}
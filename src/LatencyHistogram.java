@@ -0,0 +1,72 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size, lock-free latency histogram in the style of HdrHistogram.
+// Values (nanoseconds) land in log-linear buckets: one group per power of two, each split into
+// SUB_BUCKETS linear steps, so any reported percentile is within ~3% of the real value.
+// record() only touches preallocated atomics: no allocation, no locks.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int GROUPS = 64 - SUB_BITS + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(GROUPS * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        sum.add(nanos);
+        long m;
+        while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) { /* retry */ }
+    }
+
+    public long getCount() { return count.sum(); }
+    public long getMaxNanos() { return max.get(); }
+
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100)
+    public long getPercentileNanos(double percentile) {
+        long total = count.sum();
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBoundOf(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // Values below SUB_BUCKETS map 1:1; above that, the SUB_BITS bits after the leading one
+    // pick the sub-bucket inside the value's power-of-two group
+    private static int bucketOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int shift = 64 - Long.numberOfLeadingZeros(v) - (SUB_BITS + 1);
+        int sub = (int) (v >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        int group = bucket / SUB_BUCKETS;
+        long sub = bucket % SUB_BUCKETS;
+        if (group == 0) return sub;
+        return ((SUB_BUCKETS + sub + 1) << (group - 1)) - 1;
+    }
+}
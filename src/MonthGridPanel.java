@@ -0,0 +1,140 @@
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
+// Month view painted as a single component.
+// Navigation only swaps the month and the per-day counts; no child components are created.
+public class MonthGridPanel extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] DAY_HEADERS = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+    private static final String[] DAY_LABELS = new String[32];
+    static {
+        for (int d = 1; d <= 31; d++) DAY_LABELS[d] = " " + d;
+    }
+
+    private static final Color EVENT_BG = new Color(220, 240, 255);
+    private static final Border HEADER_BORDER = BorderFactory.createEtchedBorder();
+    private static final Border CELL_BORDER = BorderFactory.createLineBorder(Color.LIGHT_GRAY);
+
+    private YearMonth yearMonth = YearMonth.now();
+    private int[] counts = new int[31];
+    private String[] markers = new String[31];
+    private int emptySlots;
+    private int rows;
+
+    private final Consumer<LocalDate> onDayClicked;
+
+    public MonthGridPanel(Consumer<LocalDate> onDayClicked) {
+        this.onDayClicked = onDayClicked;
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        setForeground(UIManager.getColor("Label.foreground"));
+        setFont(UIManager.getFont("Label.font"));
+
+        // Single listener for the whole grid: clicks are resolved by hit-testing
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent evt) {
+                LocalDate date = dateAt(evt.getX(), evt.getY());
+                if (date != null) MonthGridPanel.this.onDayClicked.accept(date);
+            }
+        });
+    }
+
+    // counts[i] = number of events on day (i + 1)
+    public void setMonth(YearMonth ym, int[] counts) {
+        this.yearMonth = ym;
+        this.counts = counts;
+        this.emptySlots = ym.atDay(1).getDayOfWeek().getValue() % 7;
+        this.rows = (emptySlots + ym.lengthOfMonth() + 6) / 7;
+        for (int i = 0; i < ym.lengthOfMonth(); i++) {
+            markers[i] = counts[i] > 0 ? " " + counts[i] + " Events" : null;
+        }
+        repaint();
+    }
+
+    public YearMonth getYearMonth() { return yearMonth; }
+
+    public int[] getCounts() { return counts.clone(); }
+
+    // New counts for the same month: only the cells whose count changed are repainted
+    public void updateCounts(int[] newCounts) {
+        int cellW = getWidth() / 7;
+        int cellH = getHeight() / (rows + 1);
+        for (int i = 0; i < yearMonth.lengthOfMonth(); i++) {
+            if (newCounts[i] == counts[i]) continue;
+            counts[i] = newCounts[i];
+            markers[i] = counts[i] > 0 ? " " + counts[i] + " Events" : null;
+            int slot = emptySlots + i;
+            repaint((slot % 7) * cellW, (slot / 7 + 1) * cellH, cellW, cellH);
+        }
+    }
+
+    // Returns null for header cells, padding cells and points outside the grid
+    public LocalDate dateAt(int x, int y) {
+        int cellW = getWidth() / 7;
+        int cellH = getHeight() / (rows + 1);
+        if (cellW <= 0 || cellH <= 0) return null;
+
+        int col = x / cellW;
+        int row = y / cellH - 1; // Row 0 is the weekday header
+        if (col < 0 || col > 6 || row < 0 || row >= rows) return null;
+
+        int day = row * 7 + col - emptySlots + 1;
+        if (day < 1 || day > yearMonth.lengthOfMonth()) return null;
+        return yearMonth.atDay(day);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        int cellW = getWidth() / 7;
+        int cellH = getHeight() / (rows + 1);
+        if (cellW <= 0 || cellH <= 0) return;
+
+        g.setFont(getFont());
+        FontMetrics fm = g.getFontMetrics();
+        int ascent = fm.getAscent();
+
+        // Weekday headers
+        for (int c = 0; c < 7; c++) {
+            int x = c * cellW;
+            HEADER_BORDER.paintBorder(this, g, x, 0, cellW, cellH);
+            g.setColor(getForeground());
+            g.drawString(DAY_HEADERS[c], x + (cellW - fm.stringWidth(DAY_HEADERS[c])) / 2, (cellH + ascent) / 2);
+        }
+
+        // Day cells
+        int length = yearMonth.lengthOfMonth();
+        for (int day = 1; day <= length; day++) {
+            int slot = emptySlots + day - 1;
+            int x = (slot % 7) * cellW;
+            int y = (slot / 7 + 1) * cellH;
+
+            g.setColor(counts[day - 1] > 0 ? EVENT_BG : Color.WHITE);
+            g.fillRect(x, y, cellW, cellH);
+            CELL_BORDER.paintBorder(this, g, x, y, cellW, cellH);
+
+            g.setColor(getForeground());
+            g.drawString(DAY_LABELS[day], x + 1, y + 1 + ascent);
+
+            if (markers[day - 1] != null) {
+                g.setColor(Color.BLUE);
+                g.drawString(markers[day - 1], x + 1, y + (cellH + ascent) / 2);
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(700, 500);
+    }
+}
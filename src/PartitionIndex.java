@@ -0,0 +1,121 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+// Small index for the month-partitioned layout:
+//   month,<yyyy-MM>,<rowCount>,<maxId>      one row per partition file
+//   series,<eventId>,<firstMonth>,<lastMonth> one row per recurring event, or single event that
+//                                             runs into a later month ("0" = never ends)
+// It lets CalendarManager decide which partitions a date range needs without opening them.
+// Methods are synchronized because the AutoSaver writes the index from its own thread.
+public class PartitionIndex {
+    public static final String HEADER = "kind, key, first, last";
+    // Header of indexes written when only recurring events had series rows
+    public static final String OLD_HEADER = "kind, key, a, b";
+
+    private final TreeMap<YearMonth, Integer> rowCounts = new TreeMap<>();
+    private final TreeMap<YearMonth, Integer> maxIds = new TreeMap<>();
+    private final Map<Integer, YearMonth> seriesFirst = new HashMap<>();
+    private final Map<Integer, YearMonth> seriesLast = new HashMap<>(); // null value = open-ended
+
+    public synchronized NavigableSet<YearMonth> getMonths() { return new TreeSet<>(rowCounts.navigableKeySet()); }
+
+    public synchronized int getMaxId() {
+        int max = 0;
+        for (int id : maxIds.values()) max = Math.max(max, id);
+        return max;
+    }
+
+    // Months that can hold the event with this id
+    public synchronized List<YearMonth> monthsWithId(int id) {
+        List<YearMonth> months = new ArrayList<>();
+        for (Map.Entry<YearMonth, Integer> m : maxIds.entrySet()) {
+            if (m.getValue() >= id) months.add(m.getKey());
+        }
+        return months;
+    }
+
+    // Record what a partition holds after it has been (re)written
+    public synchronized void setMonth(YearMonth ym, List<Event> rows) {
+        if (rows.isEmpty()) {
+            rowCounts.remove(ym);
+            maxIds.remove(ym);
+            return;
+        }
+        int max = 0;
+        for (Event e : rows) max = Math.max(max, e.getId());
+        setMonth(ym, rows.size(), max);
+    }
+
+    public synchronized void setMonth(YearMonth ym, int rowCount, int maxId) {
+        rowCounts.put(ym, rowCount);
+        maxIds.put(ym, maxId);
+    }
+
+    // Records the months an event is seen in when they go past its start month: through its last
+    // repeat's end for a recurring event ('r' set), through its own end otherwise
+    public synchronized void setSeries(Event e, Recurrence r) {
+        LocalDate start = e.getStartDateTime().toLocalDate();
+        LocalDate last = r == null ? start : r.getLastDate(start);
+        YearMonth first = YearMonth.from(start);
+        YearMonth lastMonth = last == null ? null
+                : YearMonth.from(last.plusDays(ChronoUnit.DAYS.between(start, e.getEndDateTime().toLocalDate())));
+        if (first.equals(lastMonth)) {
+            removeSeries(e.getId());
+            return;
+        }
+        seriesFirst.put(e.getId(), first);
+        seriesLast.put(e.getId(), lastMonth);
+    }
+
+    public synchronized void removeSeries(int eventId) {
+        seriesFirst.remove(eventId);
+        seriesLast.remove(eventId);
+    }
+
+    // Partitions needed to answer queries for [from, to]: the months themselves, plus the
+    // start month of every series row that reaches into the range.
+    public synchronized Set<YearMonth> partitionsFor(YearMonth from, YearMonth to) {
+        Set<YearMonth> needed = new TreeSet<>(rowCounts.subMap(from, true, to, true).keySet());
+        for (Map.Entry<Integer, YearMonth> s : seriesFirst.entrySet()) {
+            YearMonth first = s.getValue();
+            YearMonth last = seriesLast.get(s.getKey());
+            if (!first.isAfter(to) && (last == null || !last.isBefore(from))) needed.add(first);
+        }
+        return needed;
+    }
+
+    public synchronized List<String> toCSV() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<YearMonth, Integer> m : rowCounts.entrySet()) {
+            lines.add("month," + m.getKey() + "," + m.getValue() + "," + maxIds.get(m.getKey()));
+        }
+        for (Map.Entry<Integer, YearMonth> s : seriesFirst.entrySet()) {
+            YearMonth last = seriesLast.get(s.getKey());
+            lines.add("series," + s.getKey() + "," + s.getValue() + "," + (last == null ? "0" : last.toString()));
+        }
+        return lines;
+    }
+
+    public static PartitionIndex fromCSV(List<String> lines) {
+        PartitionIndex index = new PartitionIndex();
+        for (String line : lines) {
+            String[] parts = line.split(",");
+            if (parts.length < 4) continue;
+            try {
+                String kind = parts[0].trim();
+                if (kind.equals("month")) {
+                    YearMonth ym = YearMonth.parse(parts[1].trim());
+                    index.rowCounts.put(ym, Integer.parseInt(parts[2].trim()));
+                    index.maxIds.put(ym, Integer.parseInt(parts[3].trim()));
+                } else if (kind.equals("series")) {
+                    int id = Integer.parseInt(parts[1].trim());
+                    index.seriesFirst.put(id, YearMonth.parse(parts[2].trim()));
+                    index.seriesLast.put(id, parts[3].trim().equals("0") ? null : YearMonth.parse(parts[3].trim()));
+                }
+            } catch (Exception e) { /* Skip malformed rows, same as the CSV loaders */ }
+        }
+        return index;
+    }
+}
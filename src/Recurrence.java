@@ -1,26 +1,80 @@
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class Recurrence {
     private int eventId;
-    private String interval; // "Daily", "Weekly"
+    private String interval; // "Daily", "Weekly", or a rule understood by RecurrenceRule
     private int times;       // 0 if using endDate
     private LocalDate endDate; // null if using times
+    private Set<LocalDate> excludedDates; // EXDATE: occurrences that are skipped
+
+    private final RecurrenceRule rule; // null if interval is not understood: only the start date occurs
+    private volatile LocalDate[] lastDateCache; // {start, lastDate} for the count limit
 
     public Recurrence(int eventId, String interval, int times, LocalDate endDate) {
+        this(eventId, interval, times, endDate, Collections.emptySet());
+    }
+
+    public Recurrence(int eventId, String interval, int times, LocalDate endDate, Set<LocalDate> excludedDates) {
         this.eventId = eventId;
         this.interval = interval;
         this.times = times;
         this.endDate = endDate;
+        this.excludedDates = Collections.unmodifiableSet(new TreeSet<>(excludedDates));
+        this.rule = RecurrenceRule.parse(interval);
     }
 
     public int getEventId() { return eventId; }
     public String getInterval() { return interval; }
     public int getTimes() { return times; }
     public LocalDate getEndDate() { return endDate; }
+    public Set<LocalDate> getExcludedDates() { return excludedDates; }
+    public RecurrenceRule getRule() { return rule; }
+
+    // Last date the series can fall on, or null if it repeats forever.
+    // 'times' counts repeats after the first occurrence; excluded dates still use up a repeat.
+    public LocalDate getLastDate(LocalDate start) {
+        if (endDate != null) return endDate;
+        if (times <= 0) return rule == null ? start : null;
+        if (rule == null) return start;
+
+        LocalDate[] cached = lastDateCache;
+        if (cached != null && cached[0].equals(start)) return cached[1];
+
+        LocalDate d = start;
+        for (int i = 0; i < times; i++) {
+            LocalDate next = rule.nextOnOrAfter(start, d.plusDays(1));
+            if (next == null) break;
+            d = next;
+        }
+        lastDateCache = new LocalDate[]{start, d};
+        return d;
+    }
+
+    // First occurrence on or after 'date' for a series starting on 'start', honouring the stop
+    // limits and excluded dates; null when the series has no more occurrences.
+    public LocalDate nextOccurrenceOnOrAfter(LocalDate start, LocalDate date) {
+        LocalDate limit = getLastDate(start);
+        LocalDate d = rule == null ? (date.isAfter(start) ? null : start) : rule.nextOnOrAfter(start, date);
+        while (d != null && (limit == null || !d.isAfter(limit))) {
+            if (!excludedDates.contains(d)) return d;
+            d = rule == null ? null : rule.nextOnOrAfter(start, d.plusDays(1));
+        }
+        return null;
+    }
+
+    public boolean occursOn(LocalDate start, LocalDate date) {
+        return date.equals(nextOccurrenceOnOrAfter(start, date));
+    }
 
     public String toCSV() {
         String dateStr = (endDate == null) ? "0" : endDate.toString();
-        return eventId + "," + interval + "," + times + "," + dateStr;
+        String line = eventId + "," + interval + "," + times + "," + dateStr;
+        // Optional 5th column, so rows without exclusions keep the original 4-column format
+        if (!excludedDates.isEmpty()) line += "," + joinDates(excludedDates);
+        return line;
     }
 
     public static Recurrence fromCSV(String csvLine) {
@@ -32,8 +86,28 @@ public class Recurrence {
                     Integer.parseInt(parts[0].trim()),
                     parts[1].trim(),
                     Integer.parseInt(parts[2].trim()),
-                    date
+                    date,
+                    parts.length > 4 ? parseDates(parts[4]) : Collections.emptySet()
             );
         } catch (Exception e) { return null; }
     }
-}
\ No newline at end of file
+
+    // Excluded dates are stored as "yyyy-MM-dd;yyyy-MM-dd;..."
+    public static String joinDates(Set<LocalDate> dates) {
+        StringBuilder sb = new StringBuilder();
+        for (LocalDate d : dates) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(d);
+        }
+        return sb.toString();
+    }
+
+    public static Set<LocalDate> parseDates(String text) {
+        Set<LocalDate> dates = new TreeSet<>();
+        if (text == null) return dates;
+        for (String s : text.split(";")) {
+            if (!s.trim().isEmpty()) dates.add(LocalDate.parse(s.trim()));
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,185 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.Locale;
+
+// Parsed form of Recurrence.interval. Besides the original "Daily" / "Weekly" it accepts a small
+// RRULE-like syntax (';' between parts, '/' between BYDAY days because ',' is the CSV separator):
+//   FREQ=DAILY;INTERVAL=3                  every 3 days
+//   FREQ=WEEKLY;INTERVAL=2;BYDAY=MO/WE/FR  every other week on Mon, Wed, Fri
+//   FREQ=MONTHLY;BYMONTHDAY=15             the 15th of every month (-1 = last day)
+//   FREQ=MONTHLY;BYDAY=2TU                 second Tuesday (-1FR = last Friday)
+//   FREQ=YEARLY                            same day every year
+// The series start date is always the first occurrence. Stop limits and excluded dates are
+// applied by Recurrence; this class only knows the pattern.
+public class RecurrenceRule {
+    public enum Freq { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    // Upper bound on periods scanned for one answer (e.g. Feb 29 in YEARLY, day 31 in MONTHLY)
+    private static final int MAX_PERIODS = 400;
+
+    private final Freq freq;
+    private final int interval;
+    private final EnumSet<DayOfWeek> byDay;    // WEEKLY only, empty = start's weekday
+    private final int byMonthDay;              // MONTHLY only, 0 = unset
+    private final int nth;                     // MONTHLY "nth weekday", 0 = unset
+    private final DayOfWeek nthDay;
+
+    private RecurrenceRule(Freq freq, int interval, EnumSet<DayOfWeek> byDay, int byMonthDay, int nth, DayOfWeek nthDay) {
+        this.freq = freq;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.byMonthDay = byMonthDay;
+        this.nth = nth;
+        this.nthDay = nthDay;
+    }
+
+    public Freq getFreq() { return freq; }
+    public int getInterval() { return interval; }
+
+    // Returns null for "none", blanks and anything it does not understand
+    public static RecurrenceRule parse(String text) {
+        if (text == null) return null;
+        String t = text.trim();
+        if (t.equalsIgnoreCase("Daily") || t.equals("1d")) return new RecurrenceRule(Freq.DAILY, 1, EnumSet.noneOf(DayOfWeek.class), 0, 0, null);
+        if (t.equalsIgnoreCase("Weekly") || t.equals("1w")) return new RecurrenceRule(Freq.WEEKLY, 1, EnumSet.noneOf(DayOfWeek.class), 0, 0, null);
+        if (t.equalsIgnoreCase("Monthly")) return new RecurrenceRule(Freq.MONTHLY, 1, EnumSet.noneOf(DayOfWeek.class), 0, 0, null);
+        if (t.equalsIgnoreCase("Yearly")) return new RecurrenceRule(Freq.YEARLY, 1, EnumSet.noneOf(DayOfWeek.class), 0, 0, null);
+
+        Freq freq = null;
+        int interval = 1;
+        EnumSet<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        int byMonthDay = 0;
+        int nth = 0;
+        DayOfWeek nthDay = null;
+        try {
+            for (String part : t.toUpperCase(Locale.ROOT).split(";")) {
+                String[] kv = part.trim().split("=", 2);
+                if (kv.length != 2) return null;
+                String value = kv[1].trim();
+                switch (kv[0].trim()) {
+                    case "FREQ":
+                        freq = Freq.valueOf(value);
+                        break;
+                    case "INTERVAL":
+                        interval = Integer.parseInt(value);
+                        if (interval < 1) return null;
+                        break;
+                    case "BYMONTHDAY":
+                        byMonthDay = Integer.parseInt(value);
+                        if (byMonthDay == 0 || byMonthDay < -31 || byMonthDay > 31) return null;
+                        break;
+                    case "BYDAY":
+                        for (String d : value.split("[/ +]")) {
+                            if (d.isEmpty()) continue;
+                            String code = d.substring(d.length() - 2);
+                            String prefix = d.substring(0, d.length() - 2);
+                            if (prefix.isEmpty()) {
+                                byDay.add(dayOf(code));
+                            } else {
+                                nth = Integer.parseInt(prefix.startsWith("+") ? prefix.substring(1) : prefix);
+                                nthDay = dayOf(code);
+                                if (nth == 0 || nth < -5 || nth > 5) return null;
+                            }
+                        }
+                        break;
+                    default:
+                        return null;
+                }
+            }
+        } catch (RuntimeException e) { return null; }
+
+        if (freq == null) return null;
+        if (!byDay.isEmpty() && freq != Freq.WEEKLY) return null;
+        if ((byMonthDay != 0 || nthDay != null) && freq != Freq.MONTHLY) return null;
+        if (byMonthDay != 0 && nthDay != null) return null;
+        return new RecurrenceRule(freq, interval, byDay, byMonthDay, nth, nthDay);
+    }
+
+    // First date of the pattern on or after 'date' (the start itself always counts), or null if
+    // none is found within MAX_PERIODS periods. Jumps straight to the right period instead of
+    // walking day by day.
+    public LocalDate nextOnOrAfter(LocalDate start, LocalDate date) {
+        if (!date.isAfter(start)) return start;
+
+        switch (freq) {
+            case DAILY: {
+                long diff = ChronoUnit.DAYS.between(start, date);
+                return start.plusDays(ceilDiv(diff, interval) * interval);
+            }
+            case WEEKLY: {
+                if (byDay.isEmpty()) {
+                    long diff = ChronoUnit.DAYS.between(start, date);
+                    long step = 7L * interval;
+                    return start.plusDays(ceilDiv(diff, step) * step);
+                }
+                LocalDate anchor = start.with(DayOfWeek.MONDAY);
+                long week = ChronoUnit.WEEKS.between(anchor, date.with(DayOfWeek.MONDAY));
+                for (long w = ceilDiv(week, interval) * interval, i = 0; i < MAX_PERIODS; w += interval, i++) {
+                    LocalDate monday = anchor.plusWeeks(w);
+                    for (DayOfWeek d : byDay) { // EnumSet iterates Monday..Sunday
+                        LocalDate candidate = monday.plusDays(d.getValue() - 1);
+                        if (!candidate.isBefore(date)) return candidate;
+                    }
+                }
+                return null;
+            }
+            case MONTHLY: {
+                long months = ChronoUnit.MONTHS.between(start.withDayOfMonth(1), date.withDayOfMonth(1));
+                for (long m = ceilDiv(months, interval) * interval, i = 0; i < MAX_PERIODS; m += interval, i++) {
+                    LocalDate candidate = inMonth(start, start.withDayOfMonth(1).plusMonths(m));
+                    if (candidate != null && !candidate.isBefore(date)) return candidate;
+                }
+                return null;
+            }
+            case YEARLY: {
+                long years = date.getYear() - start.getYear();
+                for (long y = ceilDiv(years, interval) * interval, i = 0; i < MAX_PERIODS; y += interval, i++) {
+                    int year = (int) (start.getYear() + y);
+                    // Feb 29 only exists in leap years; other years are skipped
+                    if (start.getMonth() == Month.FEBRUARY && start.getDayOfMonth() == 29 && !Year.isLeap(year)) continue;
+                    LocalDate candidate = start.withYear(year);
+                    if (!candidate.isBefore(date)) return candidate;
+                }
+                return null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    // The occurrence inside the month starting at 'first', or null if the month has none
+    private LocalDate inMonth(LocalDate start, LocalDate first) {
+        if (nthDay != null) {
+            // Negative nth counts from the end; a missing 5th weekday lands in another month
+            LocalDate d = first.with(TemporalAdjusters.dayOfWeekInMonth(nth, nthDay));
+            return d.getMonth() == first.getMonth() ? d : null;
+        }
+        int day = byMonthDay != 0 ? byMonthDay : start.getDayOfMonth();
+        int length = first.lengthOfMonth();
+        if (day < 0) day = length + day + 1;
+        if (day < 1 || day > length) return null;
+        return first.withDayOfMonth(day);
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        switch (code) {
+            case "MO": return DayOfWeek.MONDAY;
+            case "TU": return DayOfWeek.TUESDAY;
+            case "WE": return DayOfWeek.WEDNESDAY;
+            case "TH": return DayOfWeek.THURSDAY;
+            case "FR": return DayOfWeek.FRIDAY;
+            case "SA": return DayOfWeek.SATURDAY;
+            case "SU": return DayOfWeek.SUNDAY;
+            default: throw new IllegalArgumentException("Unknown day: " + code);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+// A CalendarStore that can write a single event's rows in place. CalendarManager saves each
+// edit through these synchronously instead of rewriting whole lists after each edit.
+public interface RowUpdatingStore extends CalendarStore {
+
+    // rec and add may be null, which removes the stored row
+    void saveEventRows(Event e, Recurrence rec, AdditionalInfo add);
+
+    void deleteEventRows(int eventId);
+}
@@ -0,0 +1,28 @@
+import java.util.List;
+
+// Rows of one data file that changed outside the app (see CalendarStore.watch); exactly one of
+// the lists is set. When 'complete' the file was rewritten and the list is its whole content, so
+// rows missing from it were deleted. Otherwise the rows were appended: each adds a row or
+// replaces the row with the same event id.
+public class StoreDelta {
+    private final List<Event> events;
+    private final List<Recurrence> recurrences;
+    private final List<AdditionalInfo> additional;
+    private final boolean complete;
+
+    private StoreDelta(List<Event> events, List<Recurrence> recurrences, List<AdditionalInfo> additional, boolean complete) {
+        this.events = events;
+        this.recurrences = recurrences;
+        this.additional = additional;
+        this.complete = complete;
+    }
+
+    public static StoreDelta ofEvents(List<Event> rows, boolean complete) { return new StoreDelta(rows, null, null, complete); }
+    public static StoreDelta ofRecurrences(List<Recurrence> rows, boolean complete) { return new StoreDelta(null, rows, null, complete); }
+    public static StoreDelta ofAdditional(List<AdditionalInfo> rows, boolean complete) { return new StoreDelta(null, null, rows, complete); }
+
+    public List<Event> getEvents() { return events; }
+    public List<Recurrence> getRecurrences() { return recurrences; }
+    public List<AdditionalInfo> getAdditional() { return additional; }
+    public boolean isComplete() { return complete; }
+}
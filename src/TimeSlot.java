@@ -0,0 +1,22 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// A free stretch of time returned by CalendarManager.findFreeSlots: [start, end)
+public class TimeSlot {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() { return start; }
+    public LocalDateTime getEnd() { return end; }
+    public Duration getDuration() { return Duration.between(start, end); }
+
+    @Override
+    public String toString() {
+        return start + " - " + end;
+    }
+}
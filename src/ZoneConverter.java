@@ -0,0 +1,79 @@
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Converts between epoch seconds and wall-clock time in one zone without building ZonedDateTimes.
+// Fixed-offset zones are plain addition; for others the offset in force is cached together with
+// the span between its surrounding transitions, so runs of nearby instants (a month of occurrences)
+// only consult ZoneRules when they cross a DST change.
+public class ZoneConverter {
+    private static final ConcurrentHashMap<ZoneId, ZoneConverter> CONVERTERS = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final boolean fixed;
+    private final int fixedOffset;
+    private volatile long[] span = {1, 0, 0}; // {validFrom, validTo, offsetSeconds}, starts empty
+
+    private ZoneConverter(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fixed = rules.isFixedOffset();
+        this.fixedOffset = fixed ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : 0;
+    }
+
+    public static ZoneConverter of(ZoneId zone) {
+        return CONVERTERS.computeIfAbsent(zone, ZoneConverter::new);
+    }
+
+    public ZoneId getZone() { return zone; }
+
+    // Offset in force at the given instant
+    public int offsetAt(long epochSecond) {
+        return fixed ? fixedOffset : (int) spanAt(epochSecond)[2];
+    }
+
+    private long[] spanAt(long epochSecond) {
+        long[] s = span;
+        if (epochSecond >= s[0] && epochSecond < s[1]) return s;
+
+        Instant t = Instant.ofEpochSecond(epochSecond);
+        ZoneOffsetTransition prev = rules.previousTransition(t.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(t);
+        s = new long[]{prev == null ? Long.MIN_VALUE : prev.toEpochSecond(),
+                next == null ? Long.MAX_VALUE : next.toEpochSecond(), rules.getOffset(t).getTotalSeconds()};
+        span = s;
+        return s;
+    }
+
+    // Wall-clock time -> epoch seconds, with ZonedDateTime.of semantics: a time inside a DST gap
+    // moves forward by the gap, an ambiguous time in an overlap takes the earlier offset
+    public long toEpochSecond(LocalDate date, int secondOfDay) {
+        long local = date.toEpochDay() * 86400 + secondOfDay;
+        if (fixed) return local - fixedOffset;
+        // Reading 'local' as UTC gives an instant within a day of the answer; if the offset there
+        // also holds at the corrected instant and no transition is near, the answer is unambiguous
+        long guess = spanAt(local)[2];
+        long epoch = local - guess;
+        long[] s = spanAt(epoch);
+        if (s[2] == guess && epoch - s[0] > 86400 && s[1] - epoch > 86400) return epoch;
+        return local - rules.getOffset(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC)).getTotalSeconds();
+    }
+
+    public long toEpochSecond(LocalDateTime t) {
+        return toEpochSecond(t.toLocalDate(), t.toLocalTime().toSecondOfDay());
+    }
+
+    public LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.ofTotalSeconds(offsetAt(epochSecond)));
+    }
+
+    public LocalDate toLocalDate(long epochSecond) {
+        return LocalDate.ofEpochDay(toEpochDay(epochSecond));
+    }
+
+    public long toEpochDay(long epochSecond) {
+        return Math.floorDiv(epochSecond + offsetAt(epochSecond), 86400);
+    }
+}
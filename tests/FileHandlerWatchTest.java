@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Live reload of event.csv: outside edits must come back as deltas, our own saves must not
+class FileHandlerWatchTest {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    @TempDir
+    Path dir;
+
+    private FileHandler store;
+    private final List<Event> events = new ArrayList<>();
+    private final BlockingQueue<StoreDelta> deltas = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        store = new FileHandler(dir.toFile());
+        for (int id = 1; id <= 3; id++) {
+            LocalDateTime start = LocalDateTime.of(2026, 5, id, 9, 0);
+            events.add(new Event(id, "Event " + id, "", start, start.plusHours(1), UTC));
+        }
+        store.saveEvents(events);
+        store.watch(deltas::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.stopWatching();
+    }
+
+    @Test
+    void ownSaveIsNotReported() throws Exception {
+        store.saveEvents(events);
+        assertNull(deltas.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void appendIsReadFromTheMark() throws Exception {
+        append("4,Event 4,,2026-05-04T09:00,2026-05-04T10:00,UTC\n");
+        StoreDelta delta = next();
+        assertFalse(delta.isComplete());
+        assertEquals(List.of(4), ids(delta));
+    }
+
+    @Test
+    void sameLengthEditIsReloaded() throws Exception {
+        Path file = dir.resolve("event.csv");
+        String text = Files.readString(file, Charset.defaultCharset());
+        Files.writeString(file, text.replace("2026-05-02T09:00", "2026-05-02T08:00"), Charset.defaultCharset());
+        assertEquals(text.length(), Files.size(file));
+
+        StoreDelta delta = next();
+        assertTrue(delta.isComplete());
+        assertEquals(List.of(1, 2, 3), ids(delta));
+        assertEquals(LocalDateTime.of(2026, 5, 2, 8, 0), delta.getEvents().get(1).getStartDateTime());
+    }
+
+    @Test
+    void editBeforeAnAppendIsReloaded() throws Exception {
+        Path file = dir.resolve("event.csv");
+        String text = Files.readString(file, Charset.defaultCharset());
+        Files.writeString(file, text.replace("Event 1", "Renamed") + "4,Event 4,,2026-05-04T09:00,2026-05-04T10:00,UTC\n",
+                Charset.defaultCharset());
+
+        StoreDelta delta = next();
+        assertTrue(delta.isComplete());
+        assertEquals(List.of(1, 2, 3, 4), ids(delta));
+        assertEquals("Renamed", delta.getEvents().get(0).getTitle());
+    }
+
+    @Test
+    void saveKeepsALineStillBeingAppended() throws Exception {
+        append("4,Event 4,,2026-05-04T09:00");
+        assertNull(deltas.poll(500, TimeUnit.MILLISECONDS));
+        store.saveEvents(events.subList(0, 2));
+        append(",2026-05-04T10:00,UTC\n");
+
+        StoreDelta delta = next();
+        assertFalse(delta.isComplete());
+        assertEquals(List.of(4), ids(delta));
+    }
+
+    private void append(String text) throws Exception {
+        Files.writeString(dir.resolve("event.csv"), text, Charset.defaultCharset(), StandardOpenOption.APPEND);
+    }
+
+    private StoreDelta next() throws InterruptedException {
+        StoreDelta delta = deltas.poll(10, TimeUnit.SECONDS);
+        assertNotNull(delta, "no change reported");
+        return delta;
+    }
+
+    private static List<Integer> ids(StoreDelta delta) {
+        List<Integer> ids = new ArrayList<>();
+        for (Event e : delta.getEvents()) ids.add(e.getId());
+        return ids;
+    }
+}
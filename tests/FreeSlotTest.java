@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// findFreeSlots sweeps the range a month at a time; gaps and busy time must not notice the chunks
+class FreeSlotTest {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @TempDir
+    Path dir;
+
+    private CalendarManager manager;
+    private final List<Event> events = new ArrayList<>();
+    private final List<Recurrence> recurrences = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        manager = new CalendarManager(new FileHandler(dir.toFile()));
+        manager.setZone(UTC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void backToBackAndOverlappingBlocks() {
+        busy("2026-06-10T09:00", "2026-06-10T10:00");
+        busy("2026-06-10T10:00", "2026-06-10T11:00"); // Starts as the last one ends
+        busy("2026-06-10T13:00", "2026-06-10T15:00");
+        busy("2026-06-10T14:00", "2026-06-10T14:30"); // Inside the one before
+        busy("2026-06-10T14:45", "2026-06-10T16:00"); // Runs past it
+        assertEquals(List.of("2026-06-10T08:00 - 2026-06-10T09:00", "2026-06-10T11:00 - 2026-06-10T13:00",
+                        "2026-06-10T16:00 - 2026-06-10T18:00"),
+                free("2026-06-10T08:00", "2026-06-10T18:00", Duration.ofMinutes(30), null, null, 10));
+    }
+
+    @Test
+    void gapCarriesAcrossTheMonthBoundary() {
+        busy("2026-06-30T08:00", "2026-06-30T20:00");
+        busy("2026-07-01T06:00", "2026-07-01T09:00");
+        assertEquals(List.of("2026-06-30T00:00 - 2026-06-30T08:00", "2026-06-30T20:00 - 2026-07-01T06:00",
+                        "2026-07-01T09:00 - 2026-07-01T12:00"),
+                free("2026-06-30T00:00", "2026-07-01T12:00", HOUR, null, null, 10));
+    }
+
+    @Test
+    void busyBlockSpanningTheMonthBoundary() {
+        busy("2026-06-30T20:00", "2026-07-01T04:00");
+        assertEquals(List.of("2026-06-30T18:00 - 2026-06-30T20:00", "2026-07-01T04:00 - 2026-07-01T06:00"),
+                free("2026-06-30T18:00", "2026-07-01T06:00", HOUR, null, null, 10));
+    }
+
+    @Test
+    void slotsAreClippedToWorkingHours() {
+        busy("2026-06-10T12:00", "2026-06-10T13:00");
+        busy("2026-06-11T09:30", "2026-06-11T16:30"); // Leaves only half-hour gaps that day
+        assertEquals(List.of("2026-06-10T09:00 - 2026-06-10T12:00", "2026-06-10T13:00 - 2026-06-10T17:00",
+                        "2026-06-12T09:00 - 2026-06-12T17:00"),
+                free("2026-06-10T00:00", "2026-06-13T00:00", HOUR, LocalTime.of(9, 0), LocalTime.of(17, 0), 10));
+    }
+
+    @Test
+    void repeatFromThePreviousDayRunsIntoTheRange() {
+        busy("2026-06-01T22:00", "2026-06-02T02:00");
+        recurrences.add(new Recurrence(events.get(0).getId(), "Daily", 0, null));
+        assertEquals(List.of("2026-06-10T02:00 - 2026-06-10T22:00"),
+                free("2026-06-10T00:00", "2026-06-11T00:00", HOUR, null, null, 10));
+        // Also when the range starts a new month chunk
+        assertEquals(List.of("2026-07-01T02:00 - 2026-07-01T12:00"),
+                free("2026-07-01T00:00", "2026-07-01T12:00", HOUR, null, null, 10));
+    }
+
+    @Test
+    void stopsAtMaxSlots() {
+        busy("2026-06-10T12:00", "2026-06-10T13:00");
+        assertEquals(List.of("2026-06-10T09:00 - 2026-06-10T12:00", "2026-06-10T13:00 - 2026-06-10T17:00"),
+                free("2026-06-10T00:00", "2027-06-10T00:00", HOUR, LocalTime.of(9, 0), LocalTime.of(17, 0), 2));
+        assertEquals(List.of("2026-06-10T00:00 - 2026-06-10T12:00"),
+                free("2026-06-10T00:00", "2027-06-10T00:00", HOUR, null, null, 1));
+        assertEquals(List.of(), free("2026-06-10T00:00", "2027-06-10T00:00", HOUR, null, null, 0));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        LocalDateTime from = LocalDateTime.of(2026, 6, 10, 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> manager.findFreeSlots(from, from.plusDays(1), Duration.ZERO, null, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> manager.findFreeSlots(from, from.plusDays(1), Duration.ofMinutes(-5), null, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> manager.findFreeSlots(from, from.plusDays(367), HOUR, null, null, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.findFreeSlots(from, from.plusDays(1), HOUR, LocalTime.of(17, 0), LocalTime.of(9, 0), 1));
+    }
+
+    private void busy(String start, String end) {
+        events.add(new Event(events.size() + 1, "Busy", "", LocalDateTime.parse(start), LocalDateTime.parse(end), UTC));
+    }
+
+    private List<String> free(String from, String to, Duration length, LocalTime workStart, LocalTime workEnd, int maxSlots) {
+        if (!events.isEmpty()) {
+            manager.importEvents(events, recurrences, List.of());
+            events.clear();
+            recurrences.clear();
+        }
+        List<String> slots = new ArrayList<>();
+        for (TimeSlot s : manager.findFreeSlots(LocalDateTime.parse(from), LocalDateTime.parse(to), length, workStart, workEnd, maxSlots)) {
+            slots.add(s.toString());
+        }
+        return slots;
+    }
+}
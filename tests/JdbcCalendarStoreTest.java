@@ -0,0 +1,162 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The database store against H2, reopened the way the app opens a calendar
+class JdbcCalendarStoreTest {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    @TempDir
+    Path dir;
+
+    private String url;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:h2:" + dir.resolve("calendar").toAbsolutePath();
+    }
+
+    @Test
+    void searchHitsComeWithTheirDetails() throws Exception {
+        CalendarManager m = new CalendarManager(new JdbcCalendarStore(url));
+        assertEquals("SUCCESS", m.createEvent("Run", "", LocalDateTime.of(2025, 3, 4, 7, 0), LocalDateTime.of(2025, 3, 4, 8, 0),
+                "none", 0, null, "Park", "Health"));
+        assertEquals("SUCCESS", m.createEvent("Walk", "", LocalDateTime.of(2026, 8, 9, 7, 0), LocalDateTime.of(2026, 8, 9, 8, 0),
+                "none", 0, null, "Park", "Health"));
+        assertEquals("SUCCESS", m.createEvent("Dentist", "", LocalDateTime.of(2026, 8, 10, 9, 0), LocalDateTime.of(2026, 8, 10, 10, 0),
+                "none", 0, null, "Town", "Doctor"));
+        m.close();
+
+        CalendarManager reopened = new CalendarManager(new JdbcCalendarStore(url));
+        List<Event> hits = reopened.search("health");
+        assertEquals(List.of("Run", "Walk"), titles(hits));
+        for (Event e : hits) {
+            AdditionalInfo info = reopened.getAdditionalInfo(e.getId());
+            assertNotNull(info, e.getTitle());
+            assertEquals("Health", info.getCategory());
+            assertEquals("Park", info.getLocation());
+            assertTrue(reopened.matchesSearch(e, "park"));
+        }
+        reopened.close();
+    }
+
+    @Test
+    void rowUpdatesTouchOnlyThatEvent() throws Exception {
+        JdbcCalendarStore store = new JdbcCalendarStore(url);
+        store.saveEvents(List.of(event(1, "One", 2026, 2, 3), event(2, "Two", 2026, 2, 4)));
+        store.saveAdditional(List.of(new AdditionalInfo(2, "Home", "Chores")));
+
+        store.saveEventRows(event(1, "One moved", 2026, 3, 3), new Recurrence(1, "Weekly", 4, null), new AdditionalInfo(1, "Park", "Health"));
+        assertEquals(List.of("One moved", "Two"), titles(store.loadEvents()));
+        assertEquals(LocalDate.of(2026, 3, 3), store.findEvent(1).getStartDateTime().toLocalDate());
+        assertEquals(1, store.loadRecurrences().size());
+        assertEquals(2, store.loadAdditional().size());
+
+        // Null detail rows remove the stored ones
+        store.saveEventRows(event(1, "One moved", 2026, 3, 3), null, null);
+        assertTrue(store.loadRecurrences().isEmpty());
+        assertEquals(List.of(2), infoIds(store.loadAdditional()));
+
+        store.deleteEventRows(2);
+        assertEquals(List.of("One moved"), titles(store.loadEvents()));
+        assertTrue(store.loadAdditional().isEmpty());
+        assertNull(store.findEvent(2));
+    }
+
+    @Test
+    void partitionIndexComesFromTheTables() throws Exception {
+        JdbcCalendarStore store = new JdbcCalendarStore(url);
+        store.saveEvents(List.of(
+                event(1, "Short series", 2026, 1, 5),
+                event(2, "Open series", 2026, 1, 12),
+                new Event(3, "Long trip", "", LocalDateTime.of(2026, 1, 28, 9, 0), LocalDateTime.of(2026, 3, 2, 9, 0), UTC),
+                event(4, "Single", 2026, 2, 10)));
+        store.saveRecurrences(List.of(new Recurrence(1, "Weekly", 2, null), new Recurrence(2, "FREQ=MONTHLY;BYDAY=2TU", 0, null)));
+
+        PartitionIndex index = store.loadPartitionIndex();
+        assertEquals(Set.of(YearMonth.of(2026, 1), YearMonth.of(2026, 2)), index.getMonths());
+        assertEquals(4, index.getMaxId());
+        // The short series stays in January; the open one and the trip reach into later months
+        List<String> rows = index.toCSV();
+        assertTrue(rows.contains("series,2,2026-01,0"), rows.toString());
+        assertTrue(rows.contains("series,3,2026-01,2026-03"), rows.toString());
+        assertFalse(rows.stream().anyMatch(r -> r.startsWith("series,1,") || r.startsWith("series,4,")), rows.toString());
+        assertEquals(Set.of(YearMonth.of(2026, 1)), index.partitionsFor(YearMonth.of(2026, 3), YearMonth.of(2026, 3)));
+        assertEquals(Set.of(YearMonth.of(2026, 1)), index.partitionsFor(YearMonth.of(2027, 6), YearMonth.of(2027, 6)));
+    }
+
+    @Test
+    void storeSearchMatchesTitleCategoryAndLocation() throws Exception {
+        JdbcCalendarStore store = new JdbcCalendarStore(url);
+        store.saveEvents(List.of(event(1, "Yoga", 2026, 4, 1), event(2, "Lunch", 2026, 4, 2),
+                event(3, "100% effort", 2026, 4, 3), event(4, "Review", 2026, 4, 4)));
+        store.saveAdditional(List.of(new AdditionalInfo(2, "City Park", "Food"), new AdditionalInfo(4, "Office", "Work")));
+
+        assertEquals(List.of("Yoga"), titles(store.searchEvents("YOGA")));
+        assertEquals(List.of("Lunch"), titles(store.searchEvents("park")));
+        assertEquals(List.of("Review"), titles(store.searchEvents("wor")));
+        // LIKE wildcards in the query are matched literally
+        assertEquals(List.of("100% effort"), titles(store.searchEvents("0%")));
+        assertEquals(List.of(), titles(store.searchEvents("_")));
+    }
+
+    @Test
+    void csvFilesFillAnEmptyDatabase() throws Exception {
+        FileHandler csv = new FileHandler(dir.toFile());
+        csv.saveEvents(List.of(event(1, "One", 2026, 5, 1), event(2, "Two", 2026, 6, 1)));
+        csv.saveRecurrences(List.of(new Recurrence(2, "Daily", 3, null)));
+        csv.saveAdditional(List.of(new AdditionalInfo(1, "Park", "Health")));
+
+        JdbcCalendarStore store = new JdbcCalendarStore(url);
+        assertEquals(2, CalendarRegistry.copyCsvFiles(dir.toFile(), store));
+        assertEquals(List.of("One", "Two"), titles(store.loadEvents()));
+        assertEquals(1, store.loadRecurrences().size());
+        assertEquals("Health", store.loadAdditional().get(0).getCategory());
+
+        // A database that has events is left alone
+        assertEquals(-1, CalendarRegistry.copyCsvFiles(dir.toFile(), store));
+    }
+
+    @Test
+    void partitionedCsvFilesFillAnEmptyDatabase() throws Exception {
+        CalendarManager m = new CalendarManager(new FileHandler(dir.toFile()));
+        m.createEvent("One", "", LocalDateTime.of(2026, 5, 1, 9, 0), LocalDateTime.of(2026, 5, 1, 10, 0), "none", 0, null, "Park", "Health");
+        m.createEvent("Two", "", LocalDateTime.of(2026, 7, 1, 9, 0), LocalDateTime.of(2026, 7, 1, 10, 0), "Weekly", 2, null, "Home", "Chores");
+        m.enablePartitionedStorage();
+        m.close();
+
+        JdbcCalendarStore store = new JdbcCalendarStore(url);
+        assertEquals(2, CalendarRegistry.copyCsvFiles(dir.toFile(), store));
+        assertEquals(List.of("One", "Two"), titles(store.loadEvents()));
+        assertEquals(1, store.loadRecurrences().size());
+        assertEquals(2, store.loadAdditional().size());
+    }
+
+    private static Event event(int id, String title, int year, int month, int day) {
+        LocalDateTime start = LocalDateTime.of(year, month, day, 9, 0);
+        return new Event(id, title, "", start, start.plusHours(1), UTC);
+    }
+
+    private static List<Integer> infoIds(List<AdditionalInfo> infos) {
+        List<Integer> ids = new ArrayList<>();
+        for (AdditionalInfo a : infos) ids.add(a.getEventId());
+        return ids;
+    }
+
+    private static List<String> titles(List<Event> events) {
+        List<String> titles = new ArrayList<>();
+        for (Event e : events) titles.add(e.getTitle());
+        return titles;
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Month partitions only load what a range needs; events reaching in from earlier months still count
+class PartitionedStorageTest {
+    private static final LocalDateTime LONG_START = LocalDateTime.of(2026, 1, 20, 9, 0);
+    private static final LocalDateTime LONG_END = LocalDateTime.of(2026, 3, 10, 17, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvEventFromAnEarlierMonthIsBusy() {
+        partitionedCsvWithLongEvent();
+        assertBusyOnMarch5(() -> new CalendarManager(new FileHandler(dir.toFile())));
+    }
+
+    @Test
+    void databaseEventFromAnEarlierMonthIsBusy() throws Exception {
+        String url = "jdbc:h2:" + dir.resolve("calendar").toAbsolutePath();
+        CalendarManager m = new CalendarManager(new JdbcCalendarStore(url));
+        createLongEvent(m);
+        m.close();
+        assertBusyOnMarch5(() -> {
+            try {
+                return new CalendarManager(new JdbcCalendarStore(url));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    void indexWithoutSpanRowsGetsThem() throws Exception {
+        partitionedCsvWithLongEvent();
+        // An index as written before single events had series rows
+        Path index = dir.resolve("events").resolve("index.csv");
+        List<String> lines = Files.readAllLines(index, Charset.defaultCharset());
+        assertEquals(PartitionIndex.HEADER, lines.get(0));
+        lines.set(0, PartitionIndex.OLD_HEADER);
+        Files.write(index, lines.stream().filter(l -> !l.startsWith("series,")).collect(Collectors.toList()), Charset.defaultCharset());
+
+        assertBusyOnMarch5(() -> new CalendarManager(new FileHandler(dir.toFile())));
+        assertEquals(PartitionIndex.HEADER, Files.readAllLines(index, Charset.defaultCharset()).get(0));
+    }
+
+    private void partitionedCsvWithLongEvent() {
+        CalendarManager m = new CalendarManager(new FileHandler(dir.toFile()));
+        createLongEvent(m);
+        m.enablePartitionedStorage();
+        m.close();
+    }
+
+    private static void createLongEvent(CalendarManager m) {
+        assertEquals("SUCCESS", m.createEvent("Project", "", LONG_START, LONG_END, "none", 0, null, "Office", "Work"));
+    }
+
+    private static void assertBusyOnMarch5(Supplier<CalendarManager> reopen) {
+        CalendarManager m = reopen.get();
+        assertTrue(m.isPartitioned());
+        List<TimeSlot> free = m.findFreeSlots(LocalDateTime.of(2026, 3, 5, 0, 0), LocalDateTime.of(2026, 3, 6, 0, 0),
+                Duration.ofMinutes(30), LocalTime.of(9, 0), LocalTime.of(17, 0), 5);
+        assertEquals(List.of(), free);
+        m.close();
+
+        m = reopen.get();
+        String result = m.createEvent("Meeting", "", LocalDateTime.of(2026, 3, 5, 10, 0), LocalDateTime.of(2026, 3, 5, 11, 0),
+                "none", 0, null, "Office", "Work");
+        assertTrue(result.startsWith("CONFLICT"), result);
+        m.close();
+    }
+}
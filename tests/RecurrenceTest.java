@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Occurrence dates of the recurrence engine: patterns from RecurrenceRule, limits and EXDATE from Recurrence
+class RecurrenceTest {
+
+    @Test
+    void nthWeekdayOfTheMonth() {
+        assertEquals(dates("2026-01-13", "2026-02-10", "2026-03-10", "2026-04-14"),
+                occurrences("FREQ=MONTHLY;BYDAY=2TU", "2026-01-13", 4));
+        assertEquals(dates("2026-01-30", "2026-02-27", "2026-03-27", "2026-04-24"),
+                occurrences("FREQ=MONTHLY;BYDAY=-1FR", "2026-01-30", 4));
+    }
+
+    @Test
+    void fifthWeekdaySkipsMonthsWithoutOne() {
+        assertEquals(dates("2026-03-29", "2026-05-31", "2026-08-30", "2026-11-29"),
+                occurrences("FREQ=MONTHLY;BYDAY=5SU", "2026-03-29", 4));
+    }
+
+    @Test
+    void monthDay31SkipsShortMonths() {
+        assertEquals(dates("2026-01-31", "2026-03-31", "2026-05-31", "2026-07-31", "2026-08-31"),
+                occurrences("FREQ=MONTHLY;BYMONTHDAY=31", "2026-01-31", 5));
+        // A plain monthly series keeps the start's day the same way
+        assertEquals(dates("2026-01-31", "2026-03-31"), occurrences("Monthly", "2026-01-31", 2));
+    }
+
+    @Test
+    void lastDayOfTheMonth() {
+        assertEquals(dates("2027-12-31", "2028-01-31", "2028-02-29", "2028-03-31", "2028-04-30"),
+                occurrences("FREQ=MONTHLY;BYMONTHDAY=-1", "2027-12-31", 5));
+    }
+
+    @Test
+    void february29OnlyInLeapYears() {
+        assertEquals(dates("2024-02-29", "2028-02-29", "2032-02-29"), occurrences("FREQ=YEARLY", "2024-02-29", 3));
+        assertEquals(dates("2028-02-29"), List.of(next("FREQ=YEARLY", "2024-02-29", "2024-03-01")));
+    }
+
+    @Test
+    void legacyDailyAndWeekly() {
+        assertEquals(dates("2026-01-01", "2026-01-02", "2026-01-03"), occurrences("Daily", "2026-01-01", 3));
+        assertEquals(dates("2026-01-01", "2026-01-08", "2026-01-15"), occurrences("Weekly", "2026-01-01", 3));
+        assertEquals(LocalDate.parse("2026-01-08"), next("Weekly", "2026-01-01", "2026-01-02"));
+        // Dates before the start fall on the start itself
+        assertEquals(LocalDate.parse("2026-01-01"), next("Weekly", "2026-01-01", "2025-12-01"));
+    }
+
+    @Test
+    void weeklyOnSeveralDaysEveryOtherWeek() {
+        assertEquals(dates("2026-01-05", "2026-01-07", "2026-01-09", "2026-01-19", "2026-01-21", "2026-01-23"),
+                occurrences("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO/WE/FR", "2026-01-05", 6));
+    }
+
+    @Test
+    void excludedDatesAreSkippedButStillCount() {
+        LocalDate start = LocalDate.parse("2026-01-01");
+        Recurrence r = new Recurrence(1, "Weekly", 2, null, Set.of(LocalDate.parse("2026-01-08")));
+        assertEquals(dates("2026-01-01", "2026-01-15"), occurrences(r, start, 10));
+        assertFalse(r.occursOn(start, LocalDate.parse("2026-01-08")));
+        assertEquals(LocalDate.parse("2026-01-15"), r.getLastDate(start));
+    }
+
+    @Test
+    void countAndEndDateLimits() {
+        LocalDate start = LocalDate.parse("2026-01-01");
+        assertEquals(dates("2026-01-01", "2026-01-08", "2026-01-15"), occurrences(new Recurrence(1, "Weekly", 2, null), start, 10));
+        assertEquals(dates("2026-01-01", "2026-01-08", "2026-01-15"),
+                occurrences(new Recurrence(1, "Weekly", 0, LocalDate.parse("2026-01-20")), start, 10));
+        assertNull(new Recurrence(1, "Weekly", 0, null).getLastDate(start));
+        assertEquals(LocalDate.parse("2026-03-31"), new Recurrence(1, "FREQ=MONTHLY;BYMONTHDAY=31", 1, null).getLastDate(LocalDate.parse("2026-01-31")));
+    }
+
+    @Test
+    void excludedDatesSurviveTheCsvRow() {
+        Recurrence r = new Recurrence(7, "FREQ=MONTHLY;BYDAY=2TU", 0, LocalDate.parse("2026-12-31"),
+                Set.of(LocalDate.parse("2026-02-10"), LocalDate.parse("2026-03-10")));
+        Recurrence read = Recurrence.fromCSV(r.toCSV());
+        assertEquals(r.getExcludedDates(), read.getExcludedDates());
+        assertEquals(r.getEndDate(), read.getEndDate());
+        // Rows without exclusions keep the original four columns
+        assertEquals("7,Weekly,3,0", new Recurrence(7, "Weekly", 3, null).toCSV());
+    }
+
+    @Test
+    void malformedRulesAreRejected() {
+        for (String text : List.of("FREQ=HOURLY", "FREQ=DAILY;INTERVAL=0", "FREQ=DAILY;INTERVAL=x", "INTERVAL=2",
+                "FREQ=MONTHLY;BYMONTHDAY=32", "FREQ=MONTHLY;BYMONTHDAY=0", "FREQ=MONTHLY;BYDAY=6TU", "FREQ=MONTHLY;BYDAY=0TU",
+                "FREQ=WEEKLY;BYDAY=XX", "FREQ=DAILY;BYDAY=MO", "FREQ=WEEKLY;BYMONTHDAY=1",
+                "FREQ=MONTHLY;BYDAY=2TU;BYMONTHDAY=3", "FREQ=MONTHLY;UNTIL=2026", "FREQ", "Fortnightly", "none", "")) {
+            assertNull(RecurrenceRule.parse(text), text);
+        }
+        assertNull(RecurrenceRule.parse(null));
+    }
+
+    private static List<LocalDate> occurrences(String rule, String start, int n) {
+        return occurrences(new Recurrence(1, rule, 0, null), LocalDate.parse(start), n);
+    }
+
+    // The first n occurrences, fewer if the series ends
+    private static List<LocalDate> occurrences(Recurrence r, LocalDate start, int n) {
+        List<LocalDate> out = new ArrayList<>();
+        for (LocalDate d = r.nextOccurrenceOnOrAfter(start, start); d != null && out.size() < n; d = r.nextOccurrenceOnOrAfter(start, d.plusDays(1))) {
+            out.add(d);
+        }
+        return out;
+    }
+
+    private static LocalDate next(String rule, String start, String date) {
+        return new Recurrence(1, rule, 0, null).nextOccurrenceOnOrAfter(LocalDate.parse(start), LocalDate.parse(date));
+    }
+
+    private static List<LocalDate> dates(String... texts) {
+        List<LocalDate> out = new ArrayList<>();
+        for (String t : texts) out.add(LocalDate.parse(t));
+        return out;
+    }
+}
@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ZoneConverter must agree with ZonedDateTime, including DST gaps, overlaps and the cached span's edges
+class ZoneConverterTest {
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final ZoneId LORD_HOWE = ZoneId.of("Australia/Lord_Howe"); // Half-hour DST shifts
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void timeInAGapMovesForward() {
+        ZoneConverter tz = ZoneConverter.of(NEW_YORK);
+        LocalDateTime inGap = LocalDateTime.of(2026, 3, 8, 2, 30);
+        assertEquals(LocalDateTime.of(2026, 3, 8, 3, 30), tz.toLocalDateTime(tz.toEpochSecond(inGap)));
+        assertEquals(expected(inGap, NEW_YORK), tz.toEpochSecond(inGap));
+
+        ZoneConverter lh = ZoneConverter.of(LORD_HOWE);
+        LocalDateTime inHalfHourGap = LocalDateTime.of(2026, 10, 4, 2, 15);
+        assertEquals(LocalDateTime.of(2026, 10, 4, 2, 45), lh.toLocalDateTime(lh.toEpochSecond(inHalfHourGap)));
+    }
+
+    @Test
+    void timeInAnOverlapTakesTheEarlierOffset() {
+        ZoneConverter tz = ZoneConverter.of(NEW_YORK);
+        LocalDateTime twice = LocalDateTime.of(2026, 11, 1, 1, 30);
+        assertEquals(twice.toEpochSecond(ZoneOffset.ofHours(-4)), tz.toEpochSecond(twice));
+
+        ZoneConverter lh = ZoneConverter.of(LORD_HOWE);
+        LocalDateTime twiceThere = LocalDateTime.of(2026, 4, 5, 1, 45);
+        assertEquals(twiceThere.toEpochSecond(ZoneOffset.ofHoursMinutes(11, 0)), lh.toEpochSecond(twiceThere));
+    }
+
+    @Test
+    void everyMinuteAroundTransitionsMatchesZonedDateTime() {
+        for (ZoneId zone : List.of(NEW_YORK, LORD_HOWE)) {
+            ZoneConverter tz = ZoneConverter.of(zone);
+            Instant t = Instant.parse("2025-12-01T00:00:00Z");
+            for (int i = 0; i < 4; i++) {
+                ZoneOffsetTransition transition = zone.getRules().nextTransition(t);
+                LocalDateTime local = transition.getDateTimeBefore().minusHours(3);
+                for (int m = 0; m <= 6 * 60; m++, local = local.plusMinutes(1)) {
+                    assertEquals(expected(local, zone), tz.toEpochSecond(local), zone + " " + local);
+                }
+                t = transition.getInstant();
+            }
+        }
+    }
+
+    @Test
+    void cachedSpanEndsAtTheTransition() {
+        ZoneConverter tz = ZoneConverter.of(NEW_YORK);
+        ZoneOffsetTransition transition = NEW_YORK.getRules().nextTransition(Instant.parse("2026-06-01T00:00:00Z"));
+        long at = transition.toEpochSecond();
+        // Cache the summer span first, then step over its end and back
+        for (long probe : new long[]{at - 86400 * 30, at - 1, at, at - 1, at + 1, at - 86400}) {
+            ZonedDateTime expected = Instant.ofEpochSecond(probe).atZone(NEW_YORK);
+            assertEquals(expected.getOffset().getTotalSeconds(), tz.offsetAt(probe), String.valueOf(probe));
+            assertEquals(expected.toLocalDateTime(), tz.toLocalDateTime(probe));
+            assertEquals(expected.toLocalDate().toEpochDay(), tz.toEpochDay(probe));
+        }
+        assertEquals(-4 * 3600, tz.offsetAt(at - 1));
+        assertEquals(-5 * 3600, tz.offsetAt(at));
+    }
+
+    @Test
+    void oldFiveColumnRowsAreReadInTheSystemZone() throws Exception {
+        Files.write(dir.resolve("event.csv"), List.of(
+                "eventId, title, description, startDateTime, endDateTime",
+                "1,Standup,Daily sync,2026-03-08T09:00:00,2026-03-08T09:15:00"), Charset.defaultCharset());
+        FileHandler store = new FileHandler(dir.toFile());
+        List<Event> events = store.loadEvents();
+        assertEquals(1, events.size());
+        Event e = events.get(0);
+        assertEquals(ZoneId.systemDefault(), e.getZone());
+        assertEquals(expected(LocalDateTime.of(2026, 3, 8, 9, 0), ZoneId.systemDefault()), e.getStartEpochSecond());
+
+        // Saving writes the zone column
+        store.saveEvents(events);
+        String row = Files.readAllLines(dir.resolve("event.csv"), Charset.defaultCharset()).get(1);
+        assertEquals("1,Standup,Daily sync,2026-03-08T09:00:00,2026-03-08T09:15:00," + ZoneId.systemDefault().getId(), row);
+    }
+
+    private static long expected(LocalDateTime local, ZoneId zone) {
+        return ZonedDateTime.of(local, zone).toEpochSecond();
+    }
+}